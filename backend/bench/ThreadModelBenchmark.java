@@ -0,0 +1,128 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread model benchmark: platform pool (Tomcat default, 200 threads) vs virtual threads
+ *
+ * Each simulated request blocks for a JDBC/upstream-like wait and then does a little
+ * CPU work (DTO conversion), which is the profile of /api/courses and the sync fan-out.
+ * All requests of a round are submitted at once; latency includes queueing time.
+ *
+ * Usage (single-file launch, JDK 21 for the virtual mode):
+ *   java bench/ThreadModelBenchmark.java [platform|virtual|both] [blockMs] [concurrency...]
+ *   java bench/ThreadModelBenchmark.java both 50 200 1000 5000 10000
+ */
+public class ThreadModelBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200; // server.tomcat.threads.max default
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        long blockMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int[] levels = args.length > 2
+            ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+            : new int[]{200, 1000, 5000, 10000};
+
+        System.out.printf("java %s, %d CPUs, blocking wait %d ms per request%n",
+            System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(), blockMs);
+        System.out.printf("%-9s %8s %10s %10s %10s %12s %10s%n",
+            "mode", "requests", "req/s", "p50 ms", "p99 ms", "peak heap MB", "peak thr");
+
+        // Warm-up so JIT and class loading do not skew the first round
+        run("platform", blockMs, 500, false);
+
+        for (int level : levels) {
+            if (!"virtual".equals(mode)) run("platform", blockMs, level, true);
+            if (!"platform".equals(mode)) run("virtual", blockMs, level, true);
+        }
+    }
+
+    private static void run(String mode, long blockMs, int requests, boolean print) throws Exception {
+        System.gc();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        threads.resetPeakThreadCount();
+
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try { Thread.sleep(5); } catch (InterruptedException e) { return; }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        ExecutorService executor = "virtual".equals(mode)
+            ? newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+
+        long[] latenciesNs = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            final long submitted = System.nanoTime();
+            executor.execute(() -> {
+                handleRequest(blockMs);
+                latenciesNs[index] = System.nanoTime() - submitted;
+                done.countDown();
+            });
+        }
+
+        done.await();
+        long elapsedNs = System.nanoTime() - start;
+        sampling.set(false);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        if (!print) return;
+
+        Arrays.sort(latenciesNs);
+        double seconds = elapsedNs / 1e9;
+        System.out.printf("%-9s %8d %10.0f %10.1f %10.1f %12.1f %10d%n",
+            mode, requests, requests / seconds,
+            latenciesNs[requests / 2] / 1e6,
+            latenciesNs[(int) (requests * 0.99)] / 1e6,
+            peakHeap.get() / (1024.0 * 1024.0),
+            threads.getPeakThreadCount());
+    }
+
+    /**
+     * Blocking wait (DB / upstream HTTP) followed by a bit of allocation-heavy CPU work
+     */
+    private static void handleRequest(long blockMs) {
+        try {
+            Thread.sleep(blockMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<String> dtos = new ArrayList<>(64);
+        for (int i = 0; i < 64; i++) {
+            dtos.add("CSE" + (100 + i) + "-" + i);
+        }
+        if (dtos.isEmpty()) throw new IllegalStateException();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual mode requires Java 21+", e);
+        }
+    }
+}
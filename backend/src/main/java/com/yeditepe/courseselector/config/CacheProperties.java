@@ -0,0 +1,62 @@
+package com.yeditepe.courseselector.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning of the course catalog cache (cache.* in application.properties)
+ * Schedules (cache.*.poll-ms, health-check-ms, refresh-check-ms) are also read by @Scheduled.
+ */
+@Getter
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    private final Memory memory = new Memory();
+    private final Db db = new Db();
+    private final Fallback fallback = new Fallback();
+    private final Delta delta = new Delta();
+
+    @Getter
+    @Setter
+    public static class Memory {
+        private long maxBytes = 64L << 20;
+        private long ttlMs = 600_000;
+        private long refreshAfterMs = 480_000;
+        private long loadTimeoutMs = 15_000;
+        private int loadThreads = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Db {
+        // Open-ms is not used: the health check closes the database circuit
+        private final Breaker breaker = new Breaker(3, 0);
+        private long healthCheckMs = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Fallback {
+        private final Breaker breaker = new Breaker(5, 30_000);
+        private long ttlMs = 60_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Delta {
+        private int history = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private int failureThreshold;
+        private long openMs;
+
+        Breaker(int failureThreshold, long openMs) {
+            this.failureThreshold = failureThreshold;
+            this.openMs = openMs;
+        }
+    }
+}
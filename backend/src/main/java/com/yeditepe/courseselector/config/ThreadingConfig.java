@@ -0,0 +1,87 @@
+package com.yeditepe.courseselector.config;
+
+import com.yeditepe.courseselector.service.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread model configuration
+ * Default: platform threads (Tomcat's worker pool, fixed pool for upstream fetches).
+ * With app.threads.virtual=true (Java 21+, see the java21 Maven profile)
+ * Tomcat request handling and upstream/sync fan-out run on virtual threads instead,
+ * so requests blocked on JDBC or the Yeditepe API no longer pin a platform thread.
+ * Boot 2.7 has no virtual thread support of its own (spring.threads.virtual.enabled is Boot 3.2+),
+ * so this switch is project-specific and wires the executors itself. On a JVM without virtual
+ * threads it logs a warning and keeps platform threads.
+ * The schedule solver pool stays on platform threads since it is CPU-bound.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamExecutor(@Value("${app.threads.virtual:false}") boolean virtualThreads,
+                                            @Value("${yeditepe.api.fetch-threads:10}") int fetchThreads) {
+        if (useVirtualThreads(virtualThreads)) {
+            log.info("Upstream fetches run on virtual threads");
+            return newVirtualThreadPerTaskExecutor("upstream-");
+        }
+        return Executors.newFixedThreadPool(fetchThreads, new NamedThreadFactory("upstream-"));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        if (!useVirtualThreads(true)) {
+            return protocolHandler -> { }; // keep Tomcat's own worker pool
+        }
+        log.info("Tomcat request handling runs on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor("http-vt-"));
+    }
+
+    private static boolean useVirtualThreads(boolean enabled) {
+        if (!enabled) return false;
+        if (virtualThreadsSupported()) return true;
+        log.warn("app.threads.virtual=true needs Java 21+, running on {}; using platform threads",
+            System.getProperty("java.version"));
+        return false;
+    }
+
+    static boolean virtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())
+     * Resolved reflectively so the default build keeps targeting Java 11
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21+, running on "
+                + System.getProperty("java.version"), e);
+        }
+    }
+}
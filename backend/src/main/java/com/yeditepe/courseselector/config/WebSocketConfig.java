@@ -1,6 +1,7 @@
 package com.yeditepe.courseselector.config;
 
 import com.yeditepe.courseselector.websocket.ActiveUserWebSocketHandler;
+import com.yeditepe.courseselector.websocket.ScheduleJobWebSocketHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -11,14 +12,19 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final ActiveUserWebSocketHandler activeUserWebSocketHandler;
+    private final ScheduleJobWebSocketHandler scheduleJobWebSocketHandler;
 
-    public WebSocketConfig(ActiveUserWebSocketHandler activeUserWebSocketHandler) {
+    public WebSocketConfig(ActiveUserWebSocketHandler activeUserWebSocketHandler,
+                           ScheduleJobWebSocketHandler scheduleJobWebSocketHandler) {
         this.activeUserWebSocketHandler = activeUserWebSocketHandler;
+        this.scheduleJobWebSocketHandler = scheduleJobWebSocketHandler;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(activeUserWebSocketHandler, "/ws/active-users")
                 .setAllowedOrigins("*");
+        registry.addHandler(scheduleJobWebSocketHandler, "/ws/schedule-jobs")
+                .setAllowedOrigins("*");
     }
 }
@@ -1,86 +1,262 @@
 package com.yeditepe.courseselector.controller;
 
 import com.yeditepe.courseselector.dto.*;
+import com.yeditepe.courseselector.service.CatalogCoherenceService;
+import com.yeditepe.courseselector.service.CatalogSnapshot;
 import com.yeditepe.courseselector.service.CourseCacheService;
-import com.yeditepe.courseselector.service.ScheduleService;
+import com.yeditepe.courseselector.service.CatalogBody;
+import com.yeditepe.courseselector.service.ScheduleAdmissionService;
+import com.yeditepe.courseselector.service.ScheduleGenerationService;
+import com.yeditepe.courseselector.service.ScheduleJobService;
 import com.yeditepe.courseselector.service.YeditepeApiService;
 import javax.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 public class CourseController {
 
+    static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    // Versions are only comparable for deltas within one epoch (one running instance)
+    static final String CATALOG_EPOCH_HEADER = "X-Catalog-Epoch";
+    // Set whenever a catalog is served from a fallback (last known snapshot) instead of the current entry
+    static final String CATALOG_STALE_HEADER = "X-Catalog-Stale";
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_FILTER_PAGE_SIZE = 200;
+
     private final CourseCacheService cacheService;
-    private final ScheduleService scheduleService;
+    private final CatalogCoherenceService coherenceService;
+    private final ScheduleGenerationService scheduleGenerationService;
+    private final ScheduleAdmissionService admissionService;
+    private final ScheduleJobService scheduleJobService;
     private final YeditepeApiService apiService;
+    private final ApplicationAvailability availability;
+    private final CacheControl catalogCacheControl;
 
     public CourseController(CourseCacheService cacheService, 
-                           ScheduleService scheduleService,
-                           YeditepeApiService apiService) {
+                           CatalogCoherenceService coherenceService,
+                           ScheduleGenerationService scheduleGenerationService,
+                           ScheduleAdmissionService admissionService,
+                           ScheduleJobService scheduleJobService,
+                           YeditepeApiService apiService,
+                           ApplicationAvailability availability,
+                           @Value("${catalog.http.max-age-seconds:300}") long catalogMaxAgeSeconds) {
         this.cacheService = cacheService;
-        this.scheduleService = scheduleService;
+        this.coherenceService = coherenceService;
+        this.scheduleGenerationService = scheduleGenerationService;
+        this.admissionService = admissionService;
+        this.scheduleJobService = scheduleJobService;
         this.apiService = apiService;
+        this.availability = availability;
+        // Catalog changes once a day; after max-age browsers revalidate and usually get a 304
+        this.catalogCacheControl = CacheControl.maxAge(catalogMaxAgeSeconds, TimeUnit.SECONDS)
+            .cachePublic()
+            .mustRevalidate();
     }
 
     @GetMapping("/seasons")
-    public ResponseEntity<List<AcademicSeason>> getSeasons() {
-        return ResponseEntity.ok(cacheService.getSeasons());
+    public ResponseEntity<?> getSeasons(WebRequest webRequest) {
+        return cacheService.getSeasonsCatalog()
+            .<ResponseEntity<?>>map(c -> serialized(webRequest, c.getBody(), c.getVersion(), c.getLastModified(),
+                cacheService.isDegraded()))
+            .orElseGet(() -> ResponseEntity.ok(cacheService.getSeasons()));
     }
 
     @GetMapping("/departments")
-    public ResponseEntity<List<Department>> getDepartments() {
-        return ResponseEntity.ok(cacheService.getDepartments());
+    public ResponseEntity<?> getDepartments(WebRequest webRequest) {
+        return cacheService.getDepartmentsCatalog()
+            .<ResponseEntity<?>>map(c -> serialized(webRequest, c.getBody(), c.getVersion(), c.getLastModified(),
+                cacheService.isDegraded()))
+            .orElseGet(() -> ResponseEntity.ok(cacheService.getDepartments()));
+    }
+
+    /**
+     * Write a pre-serialized catalog body as is, tagged with the catalog version it was built from
+     * The precompressed gzip variant is sent when the client accepts it.
+     * ETag (digest of the body + encoding) and Last-Modified (last sync) let Spring answer
+     * If-None-Match / If-Modified-Since with 304 without writing the body. The digest makes
+     * the tag independent of instance and restarts: any replica holding the same content
+     * answers 304, any other content gets a 200.
+     * Catalogs served from a fallback are marked with X-Catalog-Stale.
+     */
+    private ResponseEntity<byte[]> serialized(WebRequest webRequest, CatalogBody body, long version, long lastModified,
+                                              boolean stale) {
+        boolean gzip = body.getGzip() != null && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(CATALOG_VERSION_HEADER, String.valueOf(version))
+            .header(CATALOG_EPOCH_HEADER, cacheService.getCatalogEpoch())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .eTag("\"" + body.getEtag() + (gzip ? "-gzip" : "") + "\"")
+            .lastModified(lastModified)
+            .cacheControl(catalogCacheControl);
+        markStale(builder, stale);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return builder.body(body.getJson());
+    }
+
+    private static ResponseEntity.BodyBuilder markStale(ResponseEntity.BodyBuilder builder, boolean stale) {
+        return stale ? builder.header(CATALOG_STALE_HEADER, "true") : builder;
+    }
+
+    /**
+     * True if the response is built from a fallback snapshot, or from no catalog while the database is down
+     */
+    private boolean isStale(Optional<CatalogSnapshot> catalog) {
+        return catalog.map(cacheService::isStale).orElseGet(cacheService::isDegraded);
+    }
+
+    /**
+     * True if Accept-Encoding lists gzip (or *) without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            boolean disabled = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    disabled = true;
+                }
+            }
+            if (!disabled) return true;
+        }
+        return false;
     }
 
     // Calendar endpoint removed - not needed for course selection
 
     @GetMapping("/courses/{seasonId}/all")
-    public ResponseEntity<List<Course>> getAllCourses(@PathVariable Long seasonId) {
-        return ResponseEntity.ok(cacheService.getAllCoursesForSeason(seasonId));
+    public ResponseEntity<?> getAllCourses(@PathVariable Long seasonId, WebRequest webRequest) {
+        // 503 if the catalog cannot be loaded; empty only for a season without courses
+        Optional<CatalogSnapshot> catalog = cacheService.requireCatalog(seasonId);
+        if (catalog.isEmpty()) {
+            return markStale(ResponseEntity.ok(), isStale(catalog)).body(Collections.emptyList());
+        }
+        return serialized(webRequest, catalog.get().getBody(), catalog.get().getVersion(),
+            catalog.get().getLastModified(), isStale(catalog));
+    }
+
+    /**
+     * Course search over code, Turkish/English names and instructor (prefix and typo tolerant)
+     * Returns all sections of the best matching courses
+     */
+    @GetMapping("/courses/{seasonId}/search")
+    public ResponseEntity<List<Course>> searchCourses(
+            @PathVariable Long seasonId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        Optional<CatalogSnapshot> catalog = cacheService.requireCatalog(seasonId);
+        return markStale(ResponseEntity.ok(), isStale(catalog))
+            .body(cacheService.searchCourses(catalog.orElse(null), query, boundedLimit));
+    }
+
+    /**
+     * Faceted filter over a season's sections (day, time window, credits, ECTS, department,
+     * type, free quota), paginated, with facet counts
+     */
+    @GetMapping("/courses/{seasonId}/filter")
+    public ResponseEntity<CourseFilterResult> filterCourses(
+            @PathVariable Long seasonId,
+            CourseFilterRequest filter) {
+        int page = Math.max(0, filter.getPage());
+        int size = Math.max(1, Math.min(filter.getSize(), MAX_FILTER_PAGE_SIZE));
+        Optional<CatalogSnapshot> catalog = cacheService.requireCatalog(seasonId);
+        return markStale(ResponseEntity.ok(), isStale(catalog))
+            .body(cacheService.filterCourses(catalog.orElse(null), filter, page, size));
+    }
+
+    /**
+     * Sections added, modified and removed since the catalog version the client has
+     * (the X-Catalog-Version and X-Catalog-Epoch of its last full download). 410 if that version
+     * is no longer in the delta history or the epoch differs (another instance, or a restart);
+     * the client then reloads /courses/{seasonId}/all.
+     */
+    @GetMapping("/courses/{seasonId}/changes")
+    public ResponseEntity<?> getCourseChanges(
+            @PathVariable Long seasonId,
+            @RequestParam("since") long since,
+            @RequestParam(value = "epoch", required = false) String epoch) {
+        Optional<CatalogDelta> delta = cacheService.getChangesSince(seasonId, epoch, since);
+        if (delta.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of(
+                "success", false,
+                "message", "Katalog sürümü artık mevcut değil, lütfen tüm dersleri yeniden yükleyin"
+            ));
+        }
+        return ResponseEntity.ok()
+            .header(CATALOG_VERSION_HEADER, String.valueOf(delta.get().getToVersion()))
+            .header(CATALOG_EPOCH_HEADER, cacheService.getCatalogEpoch())
+            .body(delta.get());
     }
 
     @GetMapping("/courses/{seasonId}/{departmentId}")
-    public ResponseEntity<List<Course>> getCourses(
+    public ResponseEntity<?> getCourses(
             @PathVariable Long seasonId,
-            @PathVariable Long departmentId) {
-        return ResponseEntity.ok(cacheService.getCourses(seasonId, departmentId));
+            @PathVariable Long departmentId,
+            WebRequest webRequest) {
+        Optional<CatalogSnapshot> catalog = cacheService.getCatalog(seasonId);
+        CatalogBody body = catalog.map(c -> c.getDepartmentBody(departmentId)).orElse(null);
+        if (body == null) {
+            // Not in the snapshot: API fallback, serialized per request and never the synced catalog
+            return markStale(ResponseEntity.ok(), true)
+                .body(cacheService.getCourses(catalog.orElse(null), seasonId, departmentId));
+        }
+        return serialized(webRequest, body, catalog.get().getVersion(), catalog.get().getLastModified(),
+            isStale(catalog));
     }
 
     @PostMapping("/schedule/generate")
-    public ResponseEntity<ScheduleResult> generateSchedule(@Valid @RequestBody ScheduleRequest request) {
-        List<Course> allCourses;
-        
-        // Check if "all departments" mode
-        if (request.getDepartmentId() == null || request.getDepartmentId() == 0) {
-            // Get from cache - all departments
-            allCourses = new java.util.ArrayList<>(
-                cacheService.getAllCoursesForSeason(request.getSeasonId())
-            );
-        } else {
-            // Get courses from primary department (from cache)
-            allCourses = new java.util.ArrayList<>(
-                cacheService.getCourses(request.getSeasonId(), request.getDepartmentId())
-            );
-            
-            // Get courses from additional departments if specified
-            if (request.getAdditionalDepartmentIds() != null && !request.getAdditionalDepartmentIds().isEmpty()) {
-                for (Long deptId : request.getAdditionalDepartmentIds()) {
-                    if (!deptId.equals(request.getDepartmentId())) { // Avoid duplicate
-                        List<Course> deptCourses = cacheService.getCourses(request.getSeasonId(), deptId);
-                        allCourses.addAll(deptCourses);
-                    }
-                }
-            }
+    public CompletableFuture<ResponseEntity<?>> generateSchedule(@Valid @RequestBody ScheduleRequest request,
+                                                                 @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            // Returns a job id immediately, progress and result are pushed over /ws/schedule-jobs
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().body(scheduleJobService.submit(request)));
         }
-        
-        // Use the new method that handles both AUTO and MANUAL modes
-        ScheduleResult result = scheduleService.generateSchedule(allCourses, request);
-        return ResponseEntity.ok(result);
+        // Handles both AUTO and MANUAL modes, identical concurrent requests are coalesced.
+        // The request thread is released while the solver runs (async servlet response)
+        return scheduleGenerationService.generate(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Get async schedule job status/result (retained for a short window)
+     */
+    @GetMapping("/schedule/jobs/{jobId}")
+    public ResponseEntity<ScheduleJob> getScheduleJob(@PathVariable String jobId) {
+        return scheduleJobService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Schedule generation statistics (coalescing, queue depth, rejections)
+     */
+    @GetMapping("/schedule/stats")
+    public ResponseEntity<Map<String, Object>> getScheduleStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(scheduleGenerationService.getStats());
+        stats.put("executor", admissionService.getStats());
+        stats.put("jobs", scheduleJobService.getStats());
+        return ResponseEntity.ok(stats);
     }
 
     // ============ QUOTA CHECK ENDPOINT ============
@@ -154,7 +330,9 @@ public class CourseController {
      */
     @GetMapping("/cache/status")
     public ResponseEntity<Map<String, Object>> getCacheStatus() {
-        return ResponseEntity.ok(cacheService.getCacheStats());
+        Map<String, Object> stats = new LinkedHashMap<>(cacheService.getCacheStats());
+        stats.put("coherence", coherenceService.getStats());
+        return ResponseEntity.ok(stats);
     }
 
     /**
@@ -170,14 +348,18 @@ public class CourseController {
 
     /**
      * Check if cache is ready (data exists in database)
+     * Answers 503 while the startup warm-up is running, so it can serve as readiness probe
      */
     @GetMapping("/cache/ready")
     public ResponseEntity<Map<String, Object>> isCacheReady() {
         Map<String, Object> stats = cacheService.getCacheStats();
-        return ResponseEntity.ok(Map.of(
+        boolean accepting = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        return ResponseEntity.status(accepting ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
             "ready", cacheService.isCacheReady(),
+            "acceptingTraffic", accepting,
+            "degraded", cacheService.isDegraded(),
             "lastSync", stats.getOrDefault("lastSync", "Never"),
-            "source", "database"
+            "source", cacheService.getCatalogSource()
         ));
     }
 }
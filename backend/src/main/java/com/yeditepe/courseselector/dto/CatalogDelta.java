@@ -0,0 +1,30 @@
+package com.yeditepe.courseselector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes of a season's catalog between two versions; sections are identified by code + section
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDelta {
+    private Long seasonId;
+    private long fromVersion;          // Version the client has
+    private long toVersion;            // Version after applying this delta
+    private List<Course> added;
+    private List<Course> modified;     // Full new state of changed sections
+    private List<SectionKey> removed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionKey {
+        private String code;
+        private Integer section;
+    }
+}
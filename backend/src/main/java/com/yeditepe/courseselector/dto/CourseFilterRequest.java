@@ -0,0 +1,23 @@
+package com.yeditepe.courseselector.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Facet selection for GET /api/courses/{seasonId}/filter
+ * Values within a facet are OR-ed, facets are AND-ed
+ */
+@Data
+public class CourseFilterRequest {
+    private List<String> days;          // Meeting days, e.g. Monday
+    private String from;                // Time window start (HH:mm), all meetings must fit
+    private String to;                  // Time window end (HH:mm)
+    private List<Integer> credits;
+    private List<Integer> ects;
+    private List<Long> departmentIds;
+    private List<String> types;         // Meeting type, e.g. LEC, LAB
+    private Boolean hasQuota;           // Boş kontenjanı olan şubeler
+    private int page = 0;
+    private int size = 50;
+}
@@ -0,0 +1,19 @@
+package com.yeditepe.courseselector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseFilterResult {
+    private int total;                               // Matching sections
+    private int page;
+    private int size;
+    private List<Course> courses;                    // Sections of the requested page
+    private Map<String, Map<String, Integer>> facets; // facet -> value -> matching sections
+}
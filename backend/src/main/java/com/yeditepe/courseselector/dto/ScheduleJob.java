@@ -0,0 +1,17 @@
+package com.yeditepe.courseselector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleJob {
+    private String jobId;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED
+    private String message;
+    private ScheduleResult result;  // Set once status is COMPLETED
+    private long createdAt;
+    private Long completedAt;
+}
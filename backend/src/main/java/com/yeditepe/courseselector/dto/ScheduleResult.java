@@ -22,4 +22,6 @@ public class ScheduleResult {
     private boolean hasOverlap; // Çakışma var mı
     private int overlapMinutes; // Toplam çakışma süresi (dakika)
     private List<OverlapDetail> overlapDetails; // Çakışma detayları
+    private Long catalogVersion; // Hesaplamada kullanılan katalog sürümü
+    private Boolean catalogStale; // Veritabanına ulaşılamadığında son bilinen katalog kullanıldı
 }
@@ -0,0 +1,50 @@
+package com.yeditepe.courseselector.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Version counter of one part of the catalog, bumped in the same transaction as the sync
+ * that rewrote it. Every instance polls these rows to notice syncs run by another instance.
+ */
+@Entity
+@Table(name = "catalog_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+
+    public static final String SEASONS = "seasons";
+    public static final String DEPARTMENTS = "departments";
+    private static final String COURSES_PREFIX = "courses:";
+
+    @Id
+    @Column(length = 64)
+    private String scope; // seasons, departments or courses:{seasonId}
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static String courses(Long seasonId) {
+        return COURSES_PREFIX + seasonId;
+    }
+
+    /**
+     * Season id of a courses:{seasonId} scope, null for other scopes
+     */
+    public static Long seasonIdOf(String scope) {
+        if (scope == null || !scope.startsWith(COURSES_PREFIX)) return null;
+        try {
+            return Long.valueOf(scope.substring(COURSES_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -66,6 +66,7 @@ public class Course {
     private String departmentName;
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("id")
     private List<CourseSection> sections = new ArrayList<>();
 
     @Column(name = "last_synced_at")
@@ -0,0 +1,55 @@
+package com.yeditepe.courseselector.event;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Published by DataSyncService when a sync step has written new catalog data
+ * Listeners run after the sync transaction commits
+ */
+public class CatalogSyncedEvent {
+
+    private final Set<Long> courseSeasonIds;
+    private final boolean seasonsChanged;
+    private final boolean departmentsChanged;
+
+    private CatalogSyncedEvent(Set<Long> courseSeasonIds, boolean seasonsChanged, boolean departmentsChanged) {
+        this.courseSeasonIds = courseSeasonIds;
+        this.seasonsChanged = seasonsChanged;
+        this.departmentsChanged = departmentsChanged;
+    }
+
+    public static CatalogSyncedEvent seasons() {
+        return new CatalogSyncedEvent(Collections.emptySet(), true, false);
+    }
+
+    public static CatalogSyncedEvent departments() {
+        return new CatalogSyncedEvent(Collections.emptySet(), false, true);
+    }
+
+    public static CatalogSyncedEvent courses(Long seasonId) {
+        return new CatalogSyncedEvent(Collections.singleton(seasonId), false, false);
+    }
+
+    /**
+     * Catalog parts changed by a sync on another instance (see CatalogVersion)
+     */
+    public static CatalogSyncedEvent remote(Set<Long> courseSeasonIds, boolean seasonsChanged, boolean departmentsChanged) {
+        return new CatalogSyncedEvent(courseSeasonIds, seasonsChanged, departmentsChanged);
+    }
+
+    /**
+     * Seasons whose courses were rewritten
+     */
+    public Set<Long> getCourseSeasonIds() {
+        return courseSeasonIds;
+    }
+
+    public boolean isSeasonsChanged() {
+        return seasonsChanged;
+    }
+
+    public boolean isDepartmentsChanged() {
+        return departmentsChanged;
+    }
+}
@@ -0,0 +1,19 @@
+package com.yeditepe.courseselector.event;
+
+import com.yeditepe.courseselector.dto.ScheduleJob;
+
+/**
+ * Published whenever an async schedule job changes state
+ */
+public class ScheduleJobUpdatedEvent {
+
+    private final ScheduleJob job;
+
+    public ScheduleJobUpdatedEvent(ScheduleJob job) {
+        this.job = job;
+    }
+
+    public ScheduleJob getJob() {
+        return job;
+    }
+}
@@ -0,0 +1,23 @@
+package com.yeditepe.courseselector.repository;
+
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.scope = :scope")
+    int increment(@Param("scope") String scope, @Param("now") LocalDateTime now);
+
+    // Plain insert (save() would merge and could reset a row created concurrently)
+    @Modifying
+    @Query(value = "INSERT INTO catalog_versions (scope, version, updated_at) VALUES (:scope, 0, :now)", nativeQuery = true)
+    int insert(@Param("scope") String scope, @Param("now") LocalDateTime now);
+}
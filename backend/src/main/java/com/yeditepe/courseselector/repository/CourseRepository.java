@@ -20,7 +20,9 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     List<Course> findBySeasonId(Long seasonId);
 
-    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.sections WHERE c.seasonId = :seasonId")
+    // Stable order, so an unchanged season serializes to the same bytes (and ETag) on every load
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.sections WHERE c.seasonId = :seasonId "
+        + "ORDER BY c.departmentId, c.code, c.section, c.id")
     List<Course> findBySeasonIdWithSections(@Param("seasonId") Long seasonId);
     
     Optional<Course> findBySeasonIdAndCodeAndSection(Long seasonId, String code, Integer section);
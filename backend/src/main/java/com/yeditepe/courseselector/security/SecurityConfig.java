@@ -59,7 +59,7 @@ public class SecurityConfig {
                     .antMatchers("/api/auth/**").permitAll()
                     .antMatchers("/api/seasons", "/api/departments", "/api/calendar").permitAll()
                     .antMatchers("/api/courses/**").permitAll()
-                    .antMatchers("/api/schedule/generate").permitAll()
+                    .antMatchers("/api/schedule/generate", "/api/schedule/stats", "/api/schedule/jobs/**").permitAll()
                     .antMatchers("/api/quota/**").permitAll()
                     .antMatchers("/api/cache/**").permitAll()
                     .antMatchers("/api/sync/**").permitAll()
@@ -0,0 +1,104 @@
+package com.yeditepe.courseselector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON response body of a catalog endpoint
+ * Produced once per catalog version and written to responses as is, together with a
+ * gzip variant so compression is paid once per sync instead of once per request.
+ * The entity tag is a digest of the JSON bytes, so two bodies share a tag only if
+ * their content is identical, whichever instance or catalog version produced them.
+ */
+public final class CatalogBody {
+
+    // Below this size gzip framing outweighs the savings
+    private static final int MIN_COMPRESS_BYTES = 1024;
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    private CatalogBody(byte[] json) {
+        this.json = json;
+        this.gzip = json.length >= MIN_COMPRESS_BYTES ? gzip(json) : null;
+        this.etag = DigestUtils.md5DigestAsHex(json);
+    }
+
+    public static CatalogBody of(byte[] json) {
+        return new CatalogBody(json);
+    }
+
+    /**
+     * JSON array assembled from already encoded elements, so a list and any of its
+     * sub-lists can be produced from a single Jackson pass
+     */
+    public static CatalogBody ofArray(List<byte[]> elements) {
+        int size = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            size += element.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) out.write(',');
+            out.writeBytes(elements.get(i));
+        }
+        out.write(']');
+        return new CatalogBody(out.toByteArray());
+    }
+
+    /**
+     * Encode each element once
+     */
+    static <T> List<byte[]> encodeElements(ObjectWriter writer, List<T> items) throws JsonProcessingException {
+        List<byte[]> encoded = new ArrayList<>(items.size());
+        for (T item : items) {
+            encoded.add(writer.writeValueAsBytes(item));
+        }
+        return encoded;
+    }
+
+    /**
+     * Shared encoded body, must not be modified
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * gzip-compressed body, null if the body is too small to be worth compressing
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Content digest of the JSON body (hex), the basis of the HTTP ETag
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getSizeBytes() {
+        return json.length + (gzip != null ? gzip.length : 0);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import com.yeditepe.courseselector.event.CatalogSyncedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps this instance's catalog cache in line with syncs committed by any instance
+ * Syncs of this instance arrive as CatalogSyncedEvent after commit; syncs of other instances
+ * are noticed by polling the shared catalog versions (catalog_versions table).
+ * Either way the affected catalogs are rebuilt through CourseCacheService.
+ */
+@Service
+public class CatalogCoherenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCoherenceService.class);
+
+    private final CatalogVersionService catalogVersions;
+    private final CourseCacheService cacheService;
+
+    // Shared catalog versions last seen in the database
+    private final ConcurrentHashMap<String, Long> knownVersions = new ConcurrentHashMap<>();
+    private volatile boolean knownVersionsLoaded;
+    private final AtomicLong remoteRefreshes = new AtomicLong();
+
+    public CatalogCoherenceService(CatalogVersionService catalogVersions, CourseCacheService cacheService) {
+        this.catalogVersions = catalogVersions;
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * Rebuild affected snapshots once a sync has committed, so users never see
+     * pre-sync data until the TTL runs out
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogSynced(CatalogSyncedEvent event) {
+        // This instance ran the sync: take its version bumps as seen before rebuilding
+        try {
+            readCatalogVersions();
+        } catch (Exception e) {
+            log.warn("Failed to read catalog versions: {}", e.getMessage());
+        }
+        cacheService.refreshCatalogs(event);
+    }
+
+    /**
+     * Poll the shared catalog versions and rebuild what another instance has synced
+     */
+    @Scheduled(fixedDelayString = "${cache.coherence.poll-ms:5000}")
+    public void pollCatalogVersions() {
+        if (cacheService.isDegraded()) return;
+        boolean baseline = !knownVersionsLoaded;
+        Map<String, Long> changed;
+        try {
+            changed = readCatalogVersions();
+        } catch (Exception e) {
+            log.warn("Failed to poll catalog versions: {}", e.getMessage());
+            return;
+        }
+        // The first poll only records where this instance started
+        if (baseline || changed.isEmpty()) return;
+
+        Set<Long> seasonIds = new HashSet<>();
+        for (String scope : changed.keySet()) {
+            Long seasonId = CatalogVersion.seasonIdOf(scope);
+            // Seasons this instance does not hold are loaded fresh on first access anyway
+            if (seasonId != null && cacheService.holdsSeason(seasonId)) {
+                seasonIds.add(seasonId);
+            }
+        }
+        log.info("Catalog changed on another instance: {}", changed);
+        remoteRefreshes.incrementAndGet();
+        cacheService.refreshCatalogs(CatalogSyncedEvent.remote(seasonIds,
+            changed.containsKey(CatalogVersion.SEASONS), changed.containsKey(CatalogVersion.DEPARTMENTS)));
+    }
+
+    /**
+     * Read the shared versions, remember them and return the scopes that moved since last read
+     */
+    private synchronized Map<String, Long> readCatalogVersions() {
+        Map<String, Long> changed = new HashMap<>();
+        catalogVersions.readAll().forEach((scope, version) -> {
+            Long previous = knownVersions.put(scope, version);
+            if (previous == null || previous < version) changed.put(scope, version);
+        });
+        knownVersionsLoaded = true;
+        return changed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("catalogVersions", new TreeMap<>(knownVersions));
+        stats.put("remoteRefreshes", remoteRefreshes.get());
+        return stats;
+    }
+}
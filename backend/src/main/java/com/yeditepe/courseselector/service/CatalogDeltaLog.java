@@ -0,0 +1,132 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.CatalogDelta;
+import com.yeditepe.courseselector.dto.Course;
+
+import java.util.*;
+
+/**
+ * Bounded history of the changes between consecutive catalog snapshots of each season
+ * Each published snapshot is diffed against the one it replaces (sections keyed by code + section).
+ * A client holding version N gets the composition of all deltas since N; if N is older than
+ * the history (or unknown, e.g. after a restart) it has to download the full catalog again.
+ */
+public final class CatalogDeltaLog {
+
+    private final int maxDeltas;
+    private final Map<Long, Deque<CatalogDelta>> history = new HashMap<>();
+
+    public CatalogDeltaLog(int maxDeltas) {
+        this.maxDeltas = Math.max(1, maxDeltas);
+    }
+
+    /**
+     * Record the change from previous to next (ignored if next is not newer)
+     */
+    public synchronized void record(CatalogSnapshot previous, CatalogSnapshot next) {
+        if (previous == null || next == null || next.getVersion() <= previous.getVersion()) return;
+
+        Deque<CatalogDelta> deltas = history.computeIfAbsent(next.getSeasonId(), k -> new ArrayDeque<>());
+        if (!deltas.isEmpty() && deltas.peekLast().getToVersion() != previous.getVersion()) {
+            // A version was skipped (e.g. replaced before we saw it): older deltas no longer chain
+            deltas.clear();
+        }
+        deltas.addLast(diff(previous, next));
+        while (deltas.size() > maxDeltas) {
+            deltas.removeFirst();
+        }
+    }
+
+    /**
+     * Changes from the given version up to the current snapshot, empty if that version is not in the history
+     */
+    public synchronized Optional<CatalogDelta> since(CatalogSnapshot current, long version) {
+        Long seasonId = current.getSeasonId();
+        if (version == current.getVersion()) {
+            return Optional.of(new CatalogDelta(seasonId, version, version,
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList()));
+        }
+
+        Deque<CatalogDelta> deltas = history.getOrDefault(seasonId, new ArrayDeque<>());
+        if (deltas.isEmpty() || deltas.peekLast().getToVersion() != current.getVersion()) {
+            return Optional.empty();
+        }
+
+        // Compose: last state of each touched section, and whether it existed at the client's version
+        Map<String, Course> state = new LinkedHashMap<>();
+        Map<String, Boolean> existedBefore = new HashMap<>();
+        Map<String, CatalogDelta.SectionKey> keys = new HashMap<>();
+        boolean started = false;
+        for (CatalogDelta delta : deltas) {
+            if (!started) {
+                if (delta.getFromVersion() != version) continue;
+                started = true;
+            }
+            for (Course course : delta.getAdded()) {
+                existedBefore.putIfAbsent(key(course.getCode(), course.getSection()), false);
+                state.put(key(course.getCode(), course.getSection()), course);
+            }
+            for (Course course : delta.getModified()) {
+                existedBefore.putIfAbsent(key(course.getCode(), course.getSection()), true);
+                state.put(key(course.getCode(), course.getSection()), course);
+            }
+            for (CatalogDelta.SectionKey removed : delta.getRemoved()) {
+                String key = key(removed.getCode(), removed.getSection());
+                existedBefore.putIfAbsent(key, true);
+                state.put(key, null);
+                keys.put(key, removed);
+            }
+        }
+        if (!started) return Optional.empty();
+
+        List<Course> added = new ArrayList<>();
+        List<Course> modified = new ArrayList<>();
+        List<CatalogDelta.SectionKey> removed = new ArrayList<>();
+        state.forEach((key, course) -> {
+            boolean existed = existedBefore.get(key);
+            if (course == null) {
+                if (existed) removed.add(keys.get(key));
+            } else if (existed) {
+                modified.add(course);
+            } else {
+                added.add(course);
+            }
+        });
+        return Optional.of(new CatalogDelta(seasonId, version, current.getVersion(), added, modified, removed));
+    }
+
+    public synchronized Map<Long, Integer> getHistorySizes() {
+        Map<Long, Integer> sizes = new TreeMap<>();
+        history.forEach((seasonId, deltas) -> sizes.put(seasonId, deltas.size()));
+        return sizes;
+    }
+
+    private static CatalogDelta diff(CatalogSnapshot previous, CatalogSnapshot next) {
+        Map<String, Course> before = new HashMap<>();
+        for (Course course : previous.getCourses()) {
+            before.put(key(course.getCode(), course.getSection()), course);
+        }
+
+        List<Course> added = new ArrayList<>();
+        List<Course> modified = new ArrayList<>();
+        for (Course course : next.getCourses()) {
+            Course old = before.remove(key(course.getCode(), course.getSection()));
+            if (old == null) {
+                added.add(course);
+            } else if (!old.equals(course)) {
+                modified.add(course);
+            }
+        }
+        List<CatalogDelta.SectionKey> removed = new ArrayList<>(before.size());
+        for (Course course : before.values()) {
+            removed.add(new CatalogDelta.SectionKey(course.getCode(), course.getSection()));
+        }
+        return new CatalogDelta(next.getSeasonId(), previous.getVersion(), next.getVersion(),
+            Collections.unmodifiableList(added), Collections.unmodifiableList(modified),
+            Collections.unmodifiableList(removed));
+    }
+
+    private static String key(String code, Integer section) {
+        return code + "#" + section;
+    }
+}
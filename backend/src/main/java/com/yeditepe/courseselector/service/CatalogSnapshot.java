@@ -0,0 +1,205 @@
+package com.yeditepe.courseselector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeditepe.courseselector.dto.Course;
+
+import java.util.*;
+
+/**
+ * Immutable, versioned course catalog of one season
+ * A new snapshot is built off to the side after each sync and swapped in atomically;
+ * readers holding an older version keep using it until they finish.
+ * Courses are stored once, ordered by department; department slices are
+ * subList views over that single list, and multi-department unions are
+ * concatenated views, so no course is ever copied per request.
+ * JSON bodies of the season and of each department are encoded once per version.
+ */
+public final class CatalogSnapshot {
+
+    private final Long seasonId;
+    private final long version;
+    private final long builtAt;
+    private final long lastModified;
+    private final List<Course> courses;
+    private final Map<Long, List<Course>> byDepartment;
+    private final CatalogBody body;
+    private final Map<Long, CatalogBody> departmentBodies;
+    private final CourseSearchIndex searchIndex;
+    private final CourseFacetIndex facetIndex;
+    private final long serializedBytes;
+    private final long estimatedBytes;
+    private final long sharedStringBytes;
+
+    private CatalogSnapshot(Long seasonId, long version, long lastModified, List<Course> courses,
+                            Map<Long, List<Course>> byDepartment,
+                            CatalogBody body, Map<Long, CatalogBody> departmentBodies) {
+        this.seasonId = seasonId;
+        this.version = version;
+        this.builtAt = System.currentTimeMillis();
+        this.lastModified = lastModified;
+        this.courses = courses;
+        this.byDepartment = byDepartment;
+        this.body = body;
+        this.departmentBodies = departmentBodies;
+        this.searchIndex = CourseSearchIndex.build(courses);
+        this.facetIndex = CourseFacetIndex.build(courses);
+        long serialized = body.getSizeBytes();
+        for (CatalogBody departmentBody : departmentBodies.values()) {
+            serialized += departmentBody.getSizeBytes();
+        }
+        this.serializedBytes = serialized;
+        this.sharedStringBytes = CourseSizeEstimator.estimateSharedStrings(courses);
+        this.estimatedBytes = CourseSizeEstimator.estimate(courses) - sharedStringBytes + serialized;
+    }
+
+    /**
+     * Build a snapshot; the given list is re-ordered by department id
+     * lastModified is the latest sync time of the season's courses (epoch millis)
+     */
+    public static CatalogSnapshot of(Long seasonId, long version, long lastModified, List<Course> courses,
+                                     ObjectMapper objectMapper) throws JsonProcessingException {
+        List<Course> ordered = new ArrayList<>(courses);
+        ordered.sort(Comparator.comparing(Course::getDepartmentId, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<Course> all = Collections.unmodifiableList(ordered);
+        List<byte[]> encoded = CatalogBody.encodeElements(objectMapper.writer(), all);
+
+        Map<Long, List<Course>> byDepartment = new HashMap<>();
+        Map<Long, CatalogBody> departmentBodies = new HashMap<>();
+        int start = 0;
+        for (int i = 1; i <= all.size(); i++) {
+            Long deptId = all.get(start).getDepartmentId();
+            if (i == all.size() || !Objects.equals(deptId, all.get(i).getDepartmentId())) {
+                if (deptId != null) {
+                    byDepartment.put(deptId, all.subList(start, i));
+                    departmentBodies.put(deptId, CatalogBody.ofArray(encoded.subList(start, i)));
+                }
+                start = i;
+            }
+        }
+
+        return new CatalogSnapshot(seasonId, version, lastModified, all, Collections.unmodifiableMap(byDepartment),
+            CatalogBody.ofArray(encoded), Collections.unmodifiableMap(departmentBodies));
+    }
+
+    public Long getSeasonId() {
+        return seasonId;
+    }
+
+    /**
+     * Catalog version this snapshot was built from (increases with every published sync)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Courses of one department, empty if the season has none for it
+     */
+    public List<Course> getDepartment(Long departmentId) {
+        return byDepartment.getOrDefault(departmentId, Collections.emptyList());
+    }
+
+    public boolean hasDepartment(Long departmentId) {
+        return byDepartment.containsKey(departmentId);
+    }
+
+    public int getDepartmentCount() {
+        return byDepartment.size();
+    }
+
+    /**
+     * Pre-serialized body of the whole season
+     */
+    public CatalogBody getBody() {
+        return body;
+    }
+
+    /**
+     * Pre-serialized body of one department, null if the season has none for it
+     */
+    public CatalogBody getDepartmentBody(Long departmentId) {
+        return departmentBodies.get(departmentId);
+    }
+
+    public CourseSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public CourseFacetIndex getFacetIndex() {
+        return facetIndex;
+    }
+
+    public long getSerializedBytes() {
+        return serializedBytes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Estimated heap saved because equal strings share one instance (see StringDictionary)
+     */
+    public long getSharedStringBytes() {
+        return sharedStringBytes;
+    }
+
+    /**
+     * Read-only concatenation of several lists without copying their elements
+     */
+    public static List<Course> union(List<List<Course>> parts) {
+        if (parts.size() == 1) return parts.get(0);
+        return new ConcatenatedList(parts);
+    }
+
+    private static final class ConcatenatedList extends AbstractList<Course> implements RandomAccess {
+        private final List<List<Course>> parts;
+        private final int[] offsets;
+        private final int size;
+
+        ConcatenatedList(List<List<Course>> parts) {
+            this.parts = new ArrayList<>(parts);
+            this.offsets = new int[parts.size()];
+            int total = 0;
+            for (int i = 0; i < parts.size(); i++) {
+                offsets[i] = total;
+                total += parts.get(i).size();
+            }
+            this.size = total;
+        }
+
+        @Override
+        public Course get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int part = Arrays.binarySearch(offsets, index);
+            if (part < 0) {
+                part = -part - 2;
+            }
+            // Skip empty parts that share the same offset
+            while (part + 1 < offsets.length && offsets[part + 1] == index) {
+                part++;
+            }
+            return parts.get(part).get(index - offsets[part]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
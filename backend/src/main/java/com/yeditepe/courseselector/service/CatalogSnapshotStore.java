@@ -0,0 +1,272 @@
+package com.yeditepe.courseselector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk copy of the latest catalog snapshot of each season, so a restarted instance
+ * can serve courses before the database has been queried
+ * One file per season (season-{id}.snapshot), replaced atomically on every new version.
+ * Files are memory-mapped for reading, but every course is decoded into objects and the JSON
+ * bodies are re-encoded from them, so a restore is not zero-copy; it only saves the database read.
+ * A corrupt or outdated-format file is ignored.
+ * Only useful on storage that survives a restart: the store stays disabled unless
+ * cache.snapshot.dir points to such a directory (e.g. a mounted persistent disk).
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT = 2; // 2: versions are the shared catalog_versions values
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 4 + 8;
+
+    private final Path directory;
+    private final boolean enabled;
+
+    public CatalogSnapshotStore(@Value("${cache.snapshot.dir:}") String directory,
+                                @Value("${cache.snapshot.enabled:true}") boolean enabled) {
+        this.directory = directory.isBlank() ? null : Paths.get(directory);
+        this.enabled = enabled && this.directory != null;
+        if (enabled && this.directory == null) {
+            log.info("No cache.snapshot.dir configured, catalog snapshots are not persisted");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Write the snapshot to disk (temp file + atomic rename); failures are logged, not thrown
+     */
+    public void save(CatalogSnapshot snapshot) {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(directory);
+            byte[] payload = encode(snapshot.getCourses());
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT)
+                .putLong(snapshot.getSeasonId())
+                .putLong(snapshot.getVersion())
+                .putLong(snapshot.getLastModified())
+                .putInt(payload.length)
+                .putLong(crc.getValue());
+            header.flip();
+
+            Path target = fileOf(snapshot.getSeasonId());
+            Path temp = Files.createTempFile(directory, "season-", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(new ByteBuffer[] {header, ByteBuffer.wrap(payload)});
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved catalog snapshot of season {} (version {}, {} KB)",
+                snapshot.getSeasonId(), snapshot.getVersion(), (HEADER_BYTES + payload.length) / 1024);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save catalog snapshot of season {}: {}", snapshot.getSeasonId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Read every valid snapshot file
+     */
+    public List<CatalogSnapshot> loadAll(ObjectMapper objectMapper) {
+        List<CatalogSnapshot> snapshots = new ArrayList<>();
+        if (!enabled || !Files.isDirectory(directory)) return snapshots;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".snapshot")).forEach(file -> {
+                try {
+                    snapshots.add(read(file, objectMapper));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to list catalog snapshots in {}: {}", directory, e.getMessage());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Read the saved snapshot of one season, empty if there is none or it is unreadable
+     */
+    public Optional<CatalogSnapshot> load(Long seasonId, ObjectMapper objectMapper) {
+        if (!enabled) return Optional.empty();
+        Path file = fileOf(seasonId);
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        try {
+            return Optional.of(read(file, objectMapper));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private CatalogSnapshot read(Path file, ObjectMapper objectMapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException("unknown format");
+            }
+            long seasonId = buffer.getLong();
+            long version = buffer.getLong();
+            long lastModified = buffer.getLong();
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (buffer.remaining() != length) {
+                throw new IOException("truncated file");
+            }
+
+            ByteBuffer payload = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+            return CatalogSnapshot.of(seasonId, version, lastModified,
+                new StringDictionary().canonicalize(decode(payload)), objectMapper);
+        } catch (JsonProcessingException e) {
+            throw new IOException("failed to serialize restored catalog", e);
+        }
+    }
+
+    private Path fileOf(Long seasonId) {
+        return directory.resolve("season-" + seasonId + ".snapshot");
+    }
+
+    // ========== Binary encoding ==========
+
+    private static byte[] encode(List<Course> courses) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(courses.size());
+        for (Course c : courses) {
+            writeString(out, c.getCode());
+            writeInt(out, c.getSection());
+            writeString(out, c.getName());
+            writeString(out, c.getNameEn());
+            writeString(out, c.getNameTr());
+            writeInt(out, c.getCredit());
+            writeInt(out, c.getEcts());
+            writeInt(out, c.getFullQuota());
+            writeInt(out, c.getQuota());
+            writeString(out, c.getInfo());
+            writeString(out, c.getInstructor());
+            out.writeBoolean(c.getDepartmentId() != null);
+            if (c.getDepartmentId() != null) out.writeLong(c.getDepartmentId());
+            writeString(out, c.getDepartmentName());
+
+            List<CourseDetail> details = c.getDetails();
+            out.writeInt(details == null ? -1 : details.size());
+            if (details == null) continue;
+            for (CourseDetail d : details) {
+                writeString(out, d.getFullName());
+                writeString(out, d.getType());
+                writeString(out, d.getTypeShort());
+                writeString(out, d.getDay());
+                writeString(out, d.getStartHour());
+                writeString(out, d.getEndHour());
+                writeString(out, d.getRoomFloor());
+                writeString(out, d.getRoomName());
+                writeString(out, d.getNameShort());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<Course> decode(ByteBuffer in) {
+        int count = in.getInt();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Course c = new Course();
+            c.setCode(readString(in));
+            c.setSection(readInt(in));
+            c.setName(readString(in));
+            c.setNameEn(readString(in));
+            c.setNameTr(readString(in));
+            c.setCredit(readInt(in));
+            c.setEcts(readInt(in));
+            c.setFullQuota(readInt(in));
+            c.setQuota(readInt(in));
+            c.setInfo(readString(in));
+            c.setInstructor(readString(in));
+            c.setDepartmentId(in.get() != 0 ? in.getLong() : null);
+            c.setDepartmentName(readString(in));
+
+            int detailCount = in.getInt();
+            if (detailCount >= 0) {
+                List<CourseDetail> details = new ArrayList<>(detailCount);
+                for (int j = 0; j < detailCount; j++) {
+                    CourseDetail d = new CourseDetail();
+                    d.setFullName(readString(in));
+                    d.setType(readString(in));
+                    d.setTypeShort(readString(in));
+                    d.setDay(readString(in));
+                    d.setStartHour(readString(in));
+                    d.setEndHour(readString(in));
+                    d.setRoomFloor(readString(in));
+                    d.setRoomName(readString(in));
+                    d.setNameShort(readString(in));
+                    details.add(d);
+                }
+                c.setDetails(details);
+            }
+            courses.add(c);
+        }
+        return courses;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.yeditepe.courseselector.service;
+
+/**
+ * Thrown when catalog data can be served neither from the cache nor from its fallback
+ * (database down with no snapshot known, upstream API failing or its circuit open)
+ * Mapped to 503 Service Unavailable with a Retry-After header
+ */
+public class CatalogUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CatalogUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,86 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import com.yeditepe.courseselector.repository.CatalogVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Database-backed catalog versions shared by all instances (see CatalogVersion)
+ * Rows are created by ensureExists before the sync transaction that bumps them: inside it, a zero-row
+ * UPDATE on InnoDB (REPEATABLE READ) gap-locks the missing key, and an insert from any other
+ * transaction, including one started by the sync itself, waits on that lock until it times out.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    private final CatalogVersionRepository repository;
+    private final TransactionTemplate transaction;
+
+    public CatalogVersionService(CatalogVersionRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create the version row of a scope (version 0) if it does not exist yet, in a transaction of its own
+     * Must not be called inside the sync transaction, see class comment.
+     */
+    public void ensureExists(String scope) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Catalog version " + scope + " must be created before the sync transaction");
+        }
+        if (repository.existsById(scope)) return;
+        try {
+            transaction.executeWithoutResult(status -> repository.insert(scope, LocalDateTime.now()));
+            log.info("Created catalog version {}", scope);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it between the check and the insert; its row is all we need
+            log.debug("Catalog version {} was created concurrently", scope);
+        }
+    }
+
+    /**
+     * Increment the version of a scope as part of the caller's (sync) transaction,
+     * so other instances see the new version only together with the new data
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(String scope) {
+        if (repository.increment(scope, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Catalog version " + scope + " does not exist, call ensureExists first");
+        }
+    }
+
+    /**
+     * Current version of one scope, 0 if it was never synced
+     */
+    @Transactional(readOnly = true)
+    public long current(String scope) {
+        return repository.findById(scope).map(CatalogVersion::getVersion).orElse(0L);
+    }
+
+    /**
+     * Current version of every scope (a handful of rows)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> readAll() {
+        Map<String, Long> versions = new HashMap<>();
+        for (CatalogVersion row : repository.findAll()) {
+            versions.put(row.getScope(), row.getVersion());
+        }
+        return versions;
+    }
+}
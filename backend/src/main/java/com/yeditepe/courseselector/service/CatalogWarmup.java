@@ -0,0 +1,47 @@
+package com.yeditepe.courseselector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup warm-up: restores catalog snapshots saved on disk by the previous run, then
+ * preloads the active season's catalog before the application reports itself ready. Spring Boot only switches readiness to ACCEPTING_TRAFFIC after all
+ * runners have finished, so /api/cache/ready answers 503 until the cache is warm.
+ */
+@Component
+public class CatalogWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private final CourseCacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    public CatalogWarmup(CourseCacheService cacheService,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${cache.warmup.enabled:true}") boolean enabled) {
+        this.cacheService = cacheService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        log.info("Warming up course cache before accepting traffic");
+        cacheService.restoreFromDisk();
+        if (!cacheService.warmUp()) {
+            // Not fatal: an empty database is filled by the first sync, requests fall back to the API
+            log.warn("Course cache is cold after warm-up");
+        }
+    }
+}
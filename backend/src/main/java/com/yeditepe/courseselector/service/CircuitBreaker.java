@@ -0,0 +1,100 @@
+package com.yeditepe.courseselector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Minimal circuit breaker around a failing dependency (database, upstream API)
+ * CLOSED: calls pass; failureThreshold consecutive failures open it.
+ * OPEN: calls are rejected. After openDurationMs one probe call is let through (HALF_OPEN);
+ * with openDurationMs = 0 it stays open until an external health check calls recordSuccess().
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * True if a call may be attempted now
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.OPEN && openDurationMs > 0
+                && System.currentTimeMillis() - openedAt.get() >= openDurationMs
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return true; // single probe
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Circuit '{}' closed, {} recovered", name, name);
+        }
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (state.compareAndSet(State.HALF_OPEN, State.OPEN)
+                || (failures >= failureThreshold && state.compareAndSet(State.CLOSED, State.OPEN))) {
+            openedAt.set(System.currentTimeMillis());
+            opened.incrementAndGet();
+            log.warn("Circuit '{}' opened after {} consecutive failures", name, failures);
+        }
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Time until an open circuit lets the next probe through; 0 if it is not open
+     * or is only closed by an external health check
+     */
+    public long getRetryAfterMs() {
+        if (state.get() != State.OPEN || openDurationMs <= 0) return 0;
+        return Math.max(0, openDurationMs - (System.currentTimeMillis() - openedAt.get()));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.get().name());
+        stats.put("consecutiveFailures", consecutiveFailures.get());
+        stats.put("opened", opened.get());
+        stats.put("rejected", rejected.get());
+        if (state.get() != State.CLOSED) {
+            stats.put("openSinceMs", System.currentTimeMillis() - openedAt.get());
+        }
+        return stats;
+    }
+}
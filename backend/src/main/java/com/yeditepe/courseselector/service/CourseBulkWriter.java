@@ -0,0 +1,289 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.CourseDetail;
+import com.yeditepe.courseselector.entity.Course;
+import com.yeditepe.courseselector.entity.CourseSection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bulk write path of the course sync: JDBC batches instead of one JPA save per course and section
+ * Courses and sections use IDENTITY ids, which Hibernate cannot batch; plain JDBC batches do not
+ * need the generated keys up front (ids of new courses are read back with one query).
+ * Unchanged courses are not written at all, so a daily sync is mostly two reads per department.
+ * Runs in the caller's transaction (JdbcTemplate joins the JPA transaction's connection), behind a
+ * savepoint: a failed department is rolled back alone and the transaction stays usable for the others.
+ */
+@Component
+public class CourseBulkWriter {
+
+    private static final String COURSE_COLUMNS = "id, department_id, code, section_number, name, name_en, name_tr, "
+        + "credit, ects, full_quota, quota, info, instructor, department_name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public CourseBulkWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${data.sync.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Upsert the courses of one department (matched by season + code + section) and replace
+     * the meetings of courses whose meetings changed; courses without meetings keep their old ones
+     */
+    public Result write(Long seasonId, Long departmentId, List<com.yeditepe.courseselector.dto.Course> apiCourses) {
+        return jdbcTemplate.execute((ConnectionCallback<Result>) connection -> {
+            if (connection.getAutoCommit()) return writeRows(seasonId, departmentId, apiCourses);
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                Result result = writeRows(seasonId, departmentId, apiCourses);
+                connection.releaseSavepoint(savepoint);
+                return result;
+            } catch (RuntimeException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+        });
+    }
+
+    private Result writeRows(Long seasonId, Long departmentId, List<com.yeditepe.courseselector.dto.Course> apiCourses) {
+        Result result = new Result();
+        Map<String, com.yeditepe.courseselector.dto.Course> incoming = new LinkedHashMap<>();
+        for (com.yeditepe.courseselector.dto.Course apiCourse : apiCourses) {
+            incoming.put(key(apiCourse.getCode(), apiCourse.getSection()), apiCourse);
+        }
+        if (incoming.isEmpty()) return result;
+
+        // Read phase: existing rows and their meetings
+        long readStart = System.currentTimeMillis();
+        Set<String> codes = new LinkedHashSet<>();
+        incoming.values().forEach(c -> codes.add(c.getCode()));
+        Map<String, Course> existing = readCourses(seasonId, codes, result);
+        Map<Long, List<CourseSection>> existingSections = readSections(existing.values(), result);
+        result.setReadMs(System.currentTimeMillis() - readStart);
+
+        // Write phase
+        long writeStart = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        Map<String, List<CourseDetail>> newMeetings = new LinkedHashMap<>();
+        List<Long> replacedIds = new ArrayList<>();
+        List<Object[]> sections = new ArrayList<>();
+
+        for (Map.Entry<String, com.yeditepe.courseselector.dto.Course> entry : incoming.entrySet()) {
+            com.yeditepe.courseselector.dto.Course apiCourse = entry.getValue();
+            List<CourseDetail> details = apiCourse.getDetails() != null ? apiCourse.getDetails() : Collections.emptyList();
+            Course current = existing.get(entry.getKey());
+            if (current == null) {
+                inserts.add(insertArgs(seasonId, departmentId, apiCourse, now));
+                if (!details.isEmpty()) newMeetings.put(entry.getKey(), details);
+                result.created++;
+                continue;
+            }
+
+            boolean meetingsChanged = !details.isEmpty()
+                && !sameMeetings(existingSections.getOrDefault(current.getId(), Collections.emptyList()), details);
+            if (!meetingsChanged && sameFields(current, departmentId, apiCourse)) {
+                result.unchanged++;
+                continue;
+            }
+            updates.add(updateArgs(current.getId(), departmentId, apiCourse, now));
+            if (meetingsChanged) {
+                replacedIds.add(current.getId());
+                addSectionArgs(sections, current.getId(), details, now);
+            }
+            result.updated++;
+        }
+
+        batch("UPDATE courses SET department_id = ?, name = ?, name_en = ?, name_tr = ?, credit = ?, ects = ?, "
+            + "full_quota = ?, quota = ?, info = ?, instructor = ?, department_name = ?, last_synced_at = ?, "
+            + "updated_at = ? WHERE id = ?", updates, result);
+        batch("INSERT INTO courses (season_id, department_id, code, section_number, name, name_en, name_tr, credit, "
+            + "ects, full_quota, quota, info, instructor, department_name, last_synced_at, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", inserts, result);
+
+        if (!newMeetings.isEmpty()) {
+            // Generated ids of the new courses
+            Set<String> newCodes = new LinkedHashSet<>();
+            newMeetings.keySet().forEach(k -> newCodes.add(incoming.get(k).getCode()));
+            Map<String, Course> inserted = readCourses(seasonId, newCodes, result);
+            newMeetings.forEach((key, details) -> {
+                Course course = inserted.get(key);
+                if (course != null) addSectionArgs(sections, course.getId(), details, now);
+            });
+        }
+
+        for (List<Long> ids : chunks(replacedIds)) {
+            jdbcTemplate.update("DELETE FROM course_sections WHERE course_id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+            result.statements++;
+        }
+        batch("INSERT INTO course_sections (course_id, day, start_time, end_time, building, room, type, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", sections, result);
+        result.setWriteMs(System.currentTimeMillis() - writeStart);
+        return result;
+    }
+
+    /**
+     * Courses of a season with the given codes, by code + section (the newest row wins on duplicates)
+     */
+    private Map<String, Course> readCourses(Long seasonId, Collection<String> codes, Result result) {
+        Map<String, Course> courses = new HashMap<>();
+        for (List<String> chunk : chunks(new ArrayList<>(codes))) {
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(seasonId);
+            args.addAll(chunk);
+            jdbcTemplate.query("SELECT " + COURSE_COLUMNS + " FROM courses WHERE season_id = ? AND code IN ("
+                + placeholders(chunk.size()) + ") ORDER BY id", rs -> {
+                    Course course = new Course();
+                    course.setId(rs.getLong("id"));
+                    course.setDepartmentId(rs.getLong("department_id"));
+                    course.setCode(rs.getString("code"));
+                    course.setSection(rs.getObject("section_number", Integer.class));
+                    course.setName(rs.getString("name"));
+                    course.setNameEn(rs.getString("name_en"));
+                    course.setNameTr(rs.getString("name_tr"));
+                    course.setCredit(rs.getObject("credit", Integer.class));
+                    course.setEcts(rs.getObject("ects", Integer.class));
+                    course.setFullQuota(rs.getObject("full_quota", Integer.class));
+                    course.setQuota(rs.getObject("quota", Integer.class));
+                    course.setInfo(rs.getString("info"));
+                    course.setInstructor(rs.getString("instructor"));
+                    course.setDepartmentName(rs.getString("department_name"));
+                    courses.put(key(course.getCode(), course.getSection()), course);
+                }, args.toArray());
+            result.statements++;
+        }
+        return courses;
+    }
+
+    private Map<Long, List<CourseSection>> readSections(Collection<Course> courses, Result result) {
+        Map<Long, List<CourseSection>> sections = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        courses.forEach(c -> ids.add(c.getId()));
+        for (List<Long> chunk : chunks(ids)) {
+            jdbcTemplate.query("SELECT course_id, day, start_time, end_time, building, room, type FROM course_sections "
+                + "WHERE course_id IN (" + placeholders(chunk.size()) + ") ORDER BY course_id, id", rs -> {
+                    CourseSection section = new CourseSection();
+                    section.setDay(rs.getString("day"));
+                    section.setStartTime(rs.getString("start_time"));
+                    section.setEndTime(rs.getString("end_time"));
+                    section.setBuilding(rs.getString("building"));
+                    section.setRoom(rs.getString("room"));
+                    section.setType(rs.getString("type"));
+                    sections.computeIfAbsent(rs.getLong("course_id"), k -> new ArrayList<>()).add(section);
+                }, chunk.toArray());
+            result.statements++;
+        }
+        return sections;
+    }
+
+    private static boolean sameFields(Course current, Long departmentId, com.yeditepe.courseselector.dto.Course api) {
+        return Objects.equals(current.getDepartmentId(), departmentId)
+            && Objects.equals(current.getName(), api.getName())
+            && Objects.equals(current.getNameEn(), api.getNameEn())
+            && Objects.equals(current.getNameTr(), api.getNameTr())
+            && Objects.equals(current.getCredit(), api.getCredit())
+            && Objects.equals(current.getEcts(), api.getEcts())
+            && Objects.equals(current.getFullQuota(), api.getFullQuota())
+            && Objects.equals(current.getQuota(), api.getQuota())
+            && Objects.equals(current.getInfo(), api.getInfo())
+            && Objects.equals(current.getInstructor(), api.getInstructor())
+            && Objects.equals(current.getDepartmentName(), api.getDepartmentName());
+    }
+
+    private static boolean sameMeetings(List<CourseSection> current, List<CourseDetail> details) {
+        if (current.size() != details.size()) return false;
+        for (int i = 0; i < details.size(); i++) {
+            CourseSection section = current.get(i);
+            CourseDetail detail = details.get(i);
+            if (!Objects.equals(section.getDay(), detail.getDay())
+                    || !Objects.equals(section.getStartTime(), detail.getStartTime())
+                    || !Objects.equals(section.getEndTime(), detail.getEndTime())
+                    || !Objects.equals(section.getBuilding(), detail.getBuilding())
+                    || !Objects.equals(section.getRoom(), detail.getRoom())
+                    || !Objects.equals(section.getType(), detail.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object[] insertArgs(Long seasonId, Long departmentId, com.yeditepe.courseselector.dto.Course c,
+                                       Timestamp now) {
+        return new Object[] {seasonId, departmentId, c.getCode(), c.getSection(), c.getName(), c.getNameEn(),
+            c.getNameTr(), c.getCredit(), c.getEcts(), c.getFullQuota(), c.getQuota(), c.getInfo(),
+            c.getInstructor(), c.getDepartmentName(), now, now, now};
+    }
+
+    private static Object[] updateArgs(Long id, Long departmentId, com.yeditepe.courseselector.dto.Course c,
+                                       Timestamp now) {
+        return new Object[] {departmentId, c.getName(), c.getNameEn(), c.getNameTr(), c.getCredit(), c.getEcts(),
+            c.getFullQuota(), c.getQuota(), c.getInfo(), c.getInstructor(), c.getDepartmentName(), now, now, id};
+    }
+
+    private static void addSectionArgs(List<Object[]> sections, Long courseId, List<CourseDetail> details,
+                                       Timestamp now) {
+        for (CourseDetail d : details) {
+            sections.add(new Object[] {courseId, d.getDay(), d.getStartTime(), d.getEndTime(), d.getBuilding(),
+                d.getRoom(), d.getType(), now, now});
+        }
+    }
+
+    private void batch(String sql, List<Object[]> rows, Result result) {
+        for (List<Object[]> chunk : chunks(rows)) {
+            jdbcTemplate.batchUpdate(sql, chunk);
+            result.statements++;
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + batchSize)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String key(String code, Integer section) {
+        return code + "#" + section;
+    }
+
+    /**
+     * Counts and per-phase timings of one or more department writes
+     */
+    @lombok.Data
+    public static class Result {
+        private int created;
+        private int updated;
+        private int unchanged;
+        private int statements; // Round trips: queries, batches and deletes
+        private long fetchMs;   // Upstream API (set by the caller)
+        private long readMs;
+        private long writeMs;
+
+        public void add(Result other) {
+            created += other.created;
+            updated += other.updated;
+            unchanged += other.unchanged;
+            statements += other.statements;
+            fetchMs += other.fetchMs;
+            readMs += other.readMs;
+            writeMs += other.writeMs;
+        }
+    }
+}
@@ -1,90 +1,587 @@
 package com.yeditepe.courseselector.service;
 
+import com.yeditepe.courseselector.config.CacheProperties;
 import com.yeditepe.courseselector.dto.AcademicSeason;
+import com.yeditepe.courseselector.dto.CatalogDelta;
 import com.yeditepe.courseselector.dto.Course;
 import com.yeditepe.courseselector.dto.CourseDetail;
+import com.yeditepe.courseselector.dto.CourseFilterRequest;
+import com.yeditepe.courseselector.dto.CourseFilterResult;
 import com.yeditepe.courseselector.dto.Department;
+import com.yeditepe.courseselector.entity.CatalogVersion;
 import com.yeditepe.courseselector.entity.CourseSection;
+import com.yeditepe.courseselector.event.CatalogSyncedEvent;
 import com.yeditepe.courseselector.repository.AcademicSeasonRepository;
 import com.yeditepe.courseselector.repository.CourseRepository;
 import com.yeditepe.courseselector.repository.DepartmentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Course Cache Service - Database-backed with in-memory cache
  * Data is synced from Yeditepe API to database by DataSyncService (daily at 06:00)
  * Uses JOIN FETCH to avoid N+1 queries and in-memory cache for fast repeated access
+ * Each season is loaded once as a CatalogSnapshot; department lists are views over it
+ * The in-memory cache is bounded by an estimated byte budget (cache.memory.max-bytes)
+ * and refreshes entries ahead of expiry, serving the stale value meanwhile
  */
 @Service
 public class CourseCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(CourseCacheService.class);
-    private static final long CACHE_TTL_MS = 10 * 60 * 1000; // 10 minutes
+    private static final String CATALOG_UNAVAILABLE_MESSAGE =
+        "Ders kataloğu şu anda yüklenemiyor, lütfen birazdan tekrar deneyin.";
 
-    private final YeditepeApiService yeditepeApiService;
+    private final UpstreamFallbackService upstreamFallback;
     private final AcademicSeasonRepository seasonRepository;
     private final DepartmentRepository departmentRepository;
     private final CourseRepository courseRepository;
 
-    // In-memory cache
-    private final ConcurrentHashMap<String, CacheEntry<?>> memoryCache = new ConcurrentHashMap<>();
+    // In-memory cache: bounded by estimated bytes, W-TinyLFU eviction, expired entries cleaned up actively.
+    // Entries older than refreshAfterMs are reloaded in the background while the stale value is served.
+    // Loads are single-flight per key: concurrent callers share one in-progress future.
+    // One entry per season; department views are derived from the season snapshot.
+    private final AsyncLoadingCache<Long, CatalogSnapshot> memoryCache;
+    private final long maxBytes;
+    private final long ttlMs;
+    private final long refreshAfterMs;
+    private final long loadTimeoutMs;
+    private final ExecutorService loadExecutor;
+    // Checks restored disk snapshots; separate from loadExecutor because a stale one is
+    // rebuilt through publishCatalog, which waits on a load running on loadExecutor
+    private final ExecutorService verifyExecutor;
 
-    public CourseCacheService(YeditepeApiService yeditepeApiService,
+    // Last read per key, so refresh-ahead only keeps entries that are actually in use
+    private final ConcurrentHashMap<Long, Long> lastAccess = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lastLoadMs = new ConcurrentHashMap<>();
+    // String dictionary statistics of the last build per season
+    private final ConcurrentHashMap<Long, Map<String, Object>> lastDictionaryStats = new ConcurrentHashMap<>();
+    // Latest snapshot per season, kept beyond expiry/eviction for degraded mode (a handful of seasons)
+    private final ConcurrentHashMap<Long, CatalogSnapshot> lastKnownGood = new ConcurrentHashMap<>();
+    // Seasons served from a disk snapshot that has not been checked against the database yet
+    private final Set<Long> unverified = ConcurrentHashMap.newKeySet();
+    private final AtomicLong staleServes = new AtomicLong();
+    private final CircuitBreaker dbBreaker;
+    private final long dbHealthCheckMs;
+    private final DataSource dataSource;
+    private final AtomicLong refreshAheadCount = new AtomicLong();
+    private final AtomicLong coalescedLoads = new AtomicLong();
+    private final AtomicLong loadTimeouts = new AtomicLong();
+
+    // Catalogs are versioned by the shared catalog_versions rows, read in the same snapshot as the data.
+    // Deltas are only recorded by this process, so clients also get its epoch and must send it back.
+    private final String catalogEpoch = UUID.randomUUID().toString().substring(0, 8);
+    private final TransactionTemplate consistentRead;
+    private final AtomicLong unchangedReloads = new AtomicLong();
+    // Seasons and departments change once a day; served from memory, pre-serialized
+    private final AtomicReference<SerializedCatalog<AcademicSeason>> seasonsCatalog = new AtomicReference<>();
+    private final AtomicReference<SerializedCatalog<Department>> departmentsCatalog = new AtomicReference<>();
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshotStore snapshotStore;
+    // While a sync is writing, background refreshes keep the current snapshot instead of
+    // reading half-updated tables; the sync publishes the next version when it commits
+    private final AtomicInteger updatesInProgress = new AtomicInteger();
+    private final CatalogVersionService catalogVersions;
+    // Changes between consecutive published snapshots, for clients catching up from an older version
+    private final CatalogDeltaLog deltaLog;
+
+    public CourseCacheService(UpstreamFallbackService upstreamFallback,
                              AcademicSeasonRepository seasonRepository,
                              DepartmentRepository departmentRepository,
-                             CourseRepository courseRepository) {
-        this.yeditepeApiService = yeditepeApiService;
+                             CourseRepository courseRepository,
+                             ObjectMapper objectMapper,
+                             CatalogSnapshotStore snapshotStore,
+                             CatalogVersionService catalogVersions,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             CacheProperties properties) {
+        CacheProperties.Memory memory = properties.getMemory();
+        this.upstreamFallback = upstreamFallback;
         this.seasonRepository = seasonRepository;
         this.departmentRepository = departmentRepository;
         this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotStore = snapshotStore;
+        this.catalogVersions = catalogVersions;
+        this.dataSource = dataSource;
+        this.consistentRead = new TransactionTemplate(transactionManager);
+        this.consistentRead.setReadOnly(true);
+        this.consistentRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.dbBreaker = new CircuitBreaker("database", properties.getDb().getBreaker().getFailureThreshold(), 0);
+        this.dbHealthCheckMs = properties.getDb().getHealthCheckMs();
+        this.deltaLog = new CatalogDeltaLog(properties.getDelta().getHistory());
+        this.maxBytes = memory.getMaxBytes();
+        this.ttlMs = memory.getTtlMs();
+        this.refreshAfterMs = memory.getRefreshAfterMs();
+        this.loadTimeoutMs = memory.getLoadTimeoutMs();
+        this.loadExecutor = Executors.newFixedThreadPool(memory.getLoadThreads(), new NamedThreadFactory("cache-load-"));
+        this.verifyExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("cache-verify-"));
+        this.memoryCache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Long seasonId, CatalogSnapshot snapshot) ->
+                (int) Math.min(Integer.MAX_VALUE, snapshot.getEstimatedBytes()))
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .refreshAfterWrite(Duration.ofMillis(refreshAfterMs))
+            .executor(loadExecutor)
+            .scheduler(Scheduler.systemScheduler())
+            .removalListener((Long seasonId, CatalogSnapshot snapshot, RemovalCause cause) -> {
+                if (cause != RemovalCause.REPLACED) {
+                    lastAccess.remove(seasonId);
+                    lastLoadMs.remove(seasonId);
+                    lastDictionaryStats.remove(seasonId);
+                }
+            })
+            .recordStats()
+            .buildAsync(new CacheLoader<Long, CatalogSnapshot>() {
+                @Override
+                public CatalogSnapshot load(Long seasonId) {
+                    return loadSnapshot(seasonId);
+                }
+
+                @Override
+                public CatalogSnapshot reload(Long seasonId, CatalogSnapshot current) {
+                    if (updatesInProgress.get() > 0 || !dbBreaker.isClosed()) return current;
+                    return load(seasonId);
+                }
+            });
+    }
+
+    /**
+     * Return the cached season snapshot (null if the DB has no courses for it), or join
+     * the single in-flight load for this season. Waiting is bounded by loadTimeoutMs;
+     * a timed-out load keeps running and fills the cache for later callers.
+     */
+    private CatalogSnapshot getSnapshot(Long seasonId) {
+        lastAccess.put(seasonId, System.currentTimeMillis());
+
+        if (!dbBreaker.allowRequest()) {
+            // Degraded mode: no per-request DB attempts until the health check sees it recover
+            CatalogSnapshot stale = staleSnapshot(seasonId);
+            if (stale != null) return stale;
+            throw new IllegalStateException("Database unavailable and no catalog of season " + seasonId + " is known");
+        }
+
+        try {
+            return awaitSnapshot(seasonId);
+        } catch (RuntimeException e) {
+            CatalogSnapshot stale = staleSnapshot(seasonId);
+            if (stale == null) throw e;
+            log.warn("Serving last known catalog of season {}: {}", seasonId, e.getMessage());
+            return stale;
+        }
+    }
+
+    private CatalogSnapshot awaitSnapshot(Long seasonId) {
+        CompletableFuture<CatalogSnapshot> existing = memoryCache.getIfPresent(seasonId);
+        if (existing != null && !existing.isDone()) {
+            coalescedLoads.incrementAndGet();
+        }
+
+        CompletableFuture<CatalogSnapshot> future = existing != null ? existing : memoryCache.get(seasonId);
+        try {
+            return future.get(loadTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            loadTimeouts.incrementAndGet();
+            throw new IllegalStateException("Catalog load for season " + seasonId + " timed out after " + loadTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading catalog for season " + seasonId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Catalog load for season " + seasonId + " failed", cause);
+        }
+    }
+
+    /**
+     * Last known good snapshot of a season: the cached entry if it is loaded, else the latest
+     * snapshot built by this instance, else the copy on disk
+     */
+    private CatalogSnapshot staleSnapshot(Long seasonId) {
+        CompletableFuture<CatalogSnapshot> cached = memoryCache.getIfPresent(seasonId);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally() && cached.join() != null) {
+            return cached.join();
+        }
+        CatalogSnapshot snapshot = lastKnownGood.get(seasonId);
+        if (snapshot == null) {
+            snapshot = snapshotStore.load(seasonId, objectMapper).orElse(null);
+            if (snapshot != null) lastKnownGood.put(seasonId, snapshot);
+        }
+        if (snapshot != null) staleServes.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * True while the database circuit is open and catalogs are served from the last known snapshot
+     */
+    public boolean isDegraded() {
+        return !dbBreaker.isClosed();
+    }
+
+    /**
+     * True if the snapshot is not the season's current cache entry, i.e. it was served as a
+     * fallback (database down, load failed or timed out) or has been replaced meanwhile
+     */
+    public boolean isStale(CatalogSnapshot snapshot) {
+        if (isDegraded()) return true;
+        CompletableFuture<CatalogSnapshot> current = memoryCache.asMap().get(snapshot.getSeasonId());
+        return current == null || !current.isDone() || current.isCompletedExceptionally()
+            || current.join() != snapshot;
+    }
+
+    /**
+     * Where catalogs are currently served from: "snapshot" while the database is down,
+     * "disk" while restored snapshots are not verified yet, otherwise "database"
+     */
+    public String getCatalogSource() {
+        if (isDegraded()) return "snapshot";
+        return unverified.isEmpty() ? "database" : "disk";
+    }
+
+    /**
+     * Health check while degraded: close the database circuit as soon as a connection validates
+     */
+    @Scheduled(fixedDelayString = "${cache.db.health-check-ms:10000}")
+    public void checkDatabase() {
+        if (dbBreaker.isClosed()) return;
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(2)) {
+                dbBreaker.recordSuccess();
+            }
+        } catch (SQLException e) {
+            log.debug("Database still unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh-ahead: reload entries that are close to expiry and were read during the
+     * last TTL window, so hot entries never expire and no request waits on a reload.
+     * Entries that are read after refreshAfterMs are also refreshed on access by Caffeine.
+     */
+    @Scheduled(fixedDelayString = "${cache.memory.refresh-check-ms:30000}")
+    public void refreshAhead() {
+        long now = System.currentTimeMillis();
+        memoryCache.synchronous().policy().expireAfterWrite().ifPresent(expiration -> {
+            for (Long key : memoryCache.asMap().keySet()) {
+                long ageMs = expiration.ageOf(key, TimeUnit.MILLISECONDS).orElse(0L);
+                Long lastRead = lastAccess.get(key);
+                if (ageMs >= refreshAfterMs && lastRead != null && now - lastRead < ttlMs) {
+                    refreshAheadCount.incrementAndGet();
+                    memoryCache.synchronous().refresh(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Called by DataSyncService before it starts rewriting catalog tables
+     */
+    public void beginCatalogUpdate() {
+        updatesInProgress.incrementAndGet();
+    }
+
+    /**
+     * Called by DataSyncService once its transaction completed (committed or not)
+     */
+    public void endCatalogUpdate() {
+        updatesInProgress.updateAndGet(n -> Math.max(0, n - 1));
+    }
+
+    /**
+     * Build the next catalog version of a season from committed data and swap it in atomically.
+     * Requests already holding the previous snapshot finish on it; new requests see the new one.
+     * If the shared version has not moved, the current snapshot stays in place.
+     */
+    public void publishCatalog(Long seasonId) {
+        CatalogSnapshot previous = lastKnownGood.get(seasonId);
+        // Built on the load pool so it reads committed data outside the caller's persistence context
+        CatalogSnapshot next = CompletableFuture.supplyAsync(() -> loadSnapshot(seasonId), loadExecutor).join();
+        if (next == null) {
+            memoryCache.synchronous().invalidate(seasonId);
+            log.info("Catalog of season {} is empty, dropped it", seasonId);
+            return;
+        }
+        memoryCache.put(seasonId, CompletableFuture.completedFuture(next));
+        if (next != previous) {
+            deltaLog.record(previous, next);
+            log.info("Published catalog version {} for season {}", next.getVersion(), seasonId);
+        }
+    }
+
+    /**
+     * Identifies this process's catalog history: deltas are only valid against versions served with the same epoch
+     */
+    public String getCatalogEpoch() {
+        return catalogEpoch;
+    }
+
+    /**
+     * True if this instance holds a catalog of the season (cached or last known good)
+     */
+    public boolean holdsSeason(Long seasonId) {
+        return memoryCache.getIfPresent(seasonId) != null || lastKnownGood.containsKey(seasonId);
+    }
+
+    /**
+     * Rebuild the catalogs a committed sync changed (called by CatalogCoherenceService)
+     */
+    public void refreshCatalogs(CatalogSyncedEvent event) {
+        // Departments that were missing may have been synced now
+        upstreamFallback.invalidateAll();
+        for (Long seasonId : event.getCourseSeasonIds()) {
+            try {
+                publishCatalog(seasonId);
+            } catch (Exception e) {
+                log.error("Failed to rebuild catalog for season {}, invalidating it", seasonId, e);
+                memoryCache.synchronous().invalidate(seasonId);
+            }
+        }
+        if (event.isSeasonsChanged()) {
+            rebuildSeasonsCatalog();
+            // The active season may have changed
+            warmUp();
+        }
+        if (event.isDepartmentsChanged()) {
+            rebuildDepartmentsCatalog();
+        }
+    }
+
+    /**
+     * Put the snapshots saved on disk by a previous run into the cache, then check each one
+     * against the database in the background and rebuild it if courses changed meanwhile
+     */
+    public void restoreFromDisk() {
+        for (CatalogSnapshot snapshot : snapshotStore.loadAll(objectMapper)) {
+            memoryCache.put(snapshot.getSeasonId(), CompletableFuture.completedFuture(snapshot));
+            lastKnownGood.put(snapshot.getSeasonId(), snapshot);
+            unverified.add(snapshot.getSeasonId());
+            log.info("Restored catalog of season {} (version {}, {} courses) from disk",
+                snapshot.getSeasonId(), snapshot.getVersion(), snapshot.getCourses().size());
+            verifyExecutor.execute(() -> verifyRestored(snapshot));
+        }
+    }
+
+    private void verifyRestored(CatalogSnapshot snapshot) {
+        Long seasonId = snapshot.getSeasonId();
+        try {
+            long version = catalogVersions.current(CatalogVersion.courses(seasonId));
+            if (version > 0 && version == snapshot.getVersion()) {
+                log.info("Restored catalog of season {} is up to date", seasonId);
+                unverified.remove(seasonId);
+                return;
+            }
+            log.info("Restored catalog of season {} is stale, rebuilding from database", seasonId);
+            publishCatalog(seasonId);
+        } catch (Exception e) {
+            // Keep serving the restored copy; it expires after the TTL like any other entry
+            log.warn("Could not verify restored catalog of season {}: {}", seasonId, e.getMessage());
+        }
+    }
+
+    /**
+     * Load the seasons/departments catalogs and the active season's snapshot if not cached yet
+     * Returns true if the course snapshot is available afterwards
+     */
+    public boolean warmUp() {
+        try {
+            getDepartmentsCatalog();
+            Optional<Long> activeSeasonId = findActiveSeasonId();
+            if (activeSeasonId.isEmpty()) {
+                log.warn("No seasons in database, skipping cache warm-up");
+                return false;
+            }
+            long start = System.currentTimeMillis();
+            boolean loaded = getSnapshot(activeSeasonId.get()) != null;
+            log.info("Cache warm-up for season {} finished in {} ms", activeSeasonId.get(),
+                System.currentTimeMillis() - start);
+            return loaded;
+        } catch (Exception e) {
+            log.error("Cache warm-up failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Active season id (active flag, else the most recent season)
+     */
+    private Optional<Long> findActiveSeasonId() {
+        List<AcademicSeason> seasons = getSeasonsCatalog()
+            .map(SerializedCatalog::getItems)
+            .orElse(Collections.emptyList());
+        return seasons.stream()
+            .filter(s -> s.getActive() != null && s.getActive() == 1)
+            .findFirst()
+            .or(() -> seasons.stream().findFirst())
+            .map(AcademicSeason::getId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verifyExecutor.shutdownNow();
+        loadExecutor.shutdownNow();
+    }
+
+    /**
+     * Seasons from the in-memory catalog (empty if the database has none yet)
+     * Built on first use and rebuilt only when a season sync commits
+     */
+    public Optional<SerializedCatalog<AcademicSeason>> getSeasonsCatalog() {
+        SerializedCatalog<AcademicSeason> current = seasonsCatalog.get();
+        if (current == null) {
+            current = rebuildSeasonsCatalog();
+        }
+        return Optional.ofNullable(current);
     }
 
-    private static class CacheEntry<T> {
-        final T data;
-        final long timestamp;
-        CacheEntry(T data) {
-            this.data = data;
-            this.timestamp = System.currentTimeMillis();
+    /**
+     * Departments from the in-memory catalog (empty if the database has none yet)
+     * Built on first use and rebuilt only when a department sync commits
+     */
+    public Optional<SerializedCatalog<Department>> getDepartmentsCatalog() {
+        SerializedCatalog<Department> current = departmentsCatalog.get();
+        if (current == null) {
+            current = rebuildDepartmentsCatalog();
         }
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_TTL_MS;
+        return Optional.ofNullable(current);
+    }
+
+    private SerializedCatalog<AcademicSeason> rebuildSeasonsCatalog() {
+        if (!dbBreaker.allowRequest()) return null;
+        try {
+            Versioned<List<com.yeditepe.courseselector.entity.AcademicSeason>> read =
+                readVersioned(CatalogVersion.SEASONS, version -> seasonRepository.findAllByOrderByIdDesc());
+            dbBreaker.recordSuccess();
+            List<com.yeditepe.courseselector.entity.AcademicSeason> entities = read.rows;
+            List<AcademicSeason> seasons = entities.stream()
+                .map(this::convertSeasonToDto)
+                .collect(Collectors.toList());
+            SerializedCatalog<AcademicSeason> next = seasons.isEmpty() ? null : serialize(seasons, read.version,
+                latestSync(entities.stream().map(com.yeditepe.courseselector.entity.AcademicSeason::getLastSyncedAt)));
+            seasonsCatalog.set(next);
+            return next;
+        } catch (Exception e) {
+            if (e instanceof RuntimeException) dbBreaker.recordFailure(); // query failed, not serialization
+            log.error("Failed to build seasons catalog", e);
+            return null;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getFromCache(String key) {
-        CacheEntry<?> entry = memoryCache.get(key);
-        if (entry != null && !entry.isExpired()) {
-            return (T) entry.data;
+    private SerializedCatalog<Department> rebuildDepartmentsCatalog() {
+        if (!dbBreaker.allowRequest()) return null;
+        try {
+            Versioned<List<com.yeditepe.courseselector.entity.Department>> read =
+                readVersioned(CatalogVersion.DEPARTMENTS, version -> departmentRepository.findAllByOrderByNameAsc());
+            dbBreaker.recordSuccess();
+            List<com.yeditepe.courseselector.entity.Department> entities = read.rows;
+            List<Department> departments = entities.stream()
+                .map(this::convertDepartmentToDto)
+                .collect(Collectors.toList());
+            SerializedCatalog<Department> next = departments.isEmpty() ? null : serialize(departments, read.version,
+                latestSync(entities.stream().map(com.yeditepe.courseselector.entity.Department::getLastSyncedAt)));
+            departmentsCatalog.set(next);
+            return next;
+        } catch (Exception e) {
+            if (e instanceof RuntimeException) dbBreaker.recordFailure(); // query failed, not serialization
+            log.error("Failed to build departments catalog", e);
+            return null;
         }
-        return null;
     }
 
-    private <T> void putInCache(String key, T data) {
-        memoryCache.put(key, new CacheEntry<>(data));
+    private <T> SerializedCatalog<T> serialize(List<T> items, long version, long lastModified)
+            throws JsonProcessingException {
+        return new SerializedCatalog<>(items, CatalogBody.of(objectMapper.writeValueAsBytes(items)), version, lastModified);
     }
 
-    public void clearCache() {
-        memoryCache.clear();
+    /**
+     * Read the shared version of a scope and then its rows in one repeatable-read transaction.
+     * A sync commits rows and version bump together, so the version describes exactly the rows read.
+     */
+    private <T> Versioned<T> readVersioned(String scope, LongFunction<T> reader) {
+        return consistentRead.execute(status -> {
+            long version = catalogVersions.current(scope);
+            return new Versioned<>(version, reader.apply(version));
+        });
+    }
+
+    private static final class Versioned<T> {
+        private final long version;
+        private final T rows;
+
+        private Versioned(long version, T rows) {
+            this.version = version;
+            this.rows = rows;
+        }
     }
 
     /**
-     * Get all academic seasons from database
+     * Latest lastSyncedAt as epoch millis (build time if no row has one)
+     */
+    private static long latestSync(Stream<LocalDateTime> syncTimes) {
+        return syncTimes.filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .map(t -> t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+            .orElseGet(System::currentTimeMillis);
+    }
+
+    /**
+     * Get all academic seasons (in-memory catalog, API fallback)
      */
     public List<AcademicSeason> getSeasons() {
+        Optional<SerializedCatalog<AcademicSeason>> catalog = getSeasonsCatalog();
+        if (catalog.isPresent()) {
+            return catalog.get().getItems();
+        }
+        return getSeasonsFromDatabase();
+    }
+
+    private List<AcademicSeason> getSeasonsFromDatabase() {
         try {
             List<com.yeditepe.courseselector.entity.AcademicSeason> entities = 
                 seasonRepository.findAllByOrderByIdDesc();
             
             if (entities.isEmpty()) {
                 log.warn("No seasons found in database, falling back to API");
-                return yeditepeApiService.getAcademicSeasons();
+                return upstreamFallback.getSeasons();
             }
             
             return entities.stream()
@@ -93,21 +590,29 @@ public class CourseCacheService {
                 
         } catch (Exception e) {
             log.error("Failed to get seasons from database, falling back to API", e);
-            return yeditepeApiService.getAcademicSeasons();
+            return upstreamFallback.getSeasons();
         }
     }
 
     /**
-     * Get all departments from database
+     * Get all departments (in-memory catalog, API fallback)
      */
     public List<Department> getDepartments() {
+        Optional<SerializedCatalog<Department>> catalog = getDepartmentsCatalog();
+        if (catalog.isPresent()) {
+            return catalog.get().getItems();
+        }
+        return getDepartmentsFromDatabase();
+    }
+
+    private List<Department> getDepartmentsFromDatabase() {
         try {
             List<com.yeditepe.courseselector.entity.Department> entities = 
                 departmentRepository.findAllByOrderByNameAsc();
             
             if (entities.isEmpty()) {
                 log.warn("No departments found in database, falling back to API");
-                return yeditepeApiService.getDepartments();
+                return upstreamFallback.getDepartments();
             }
             
             return entities.stream()
@@ -116,89 +621,165 @@ public class CourseCacheService {
                 
         } catch (Exception e) {
             log.error("Failed to get departments from database, falling back to API", e);
-            return yeditepeApiService.getDepartments();
+            return upstreamFallback.getDepartments();
         }
     }
 
     // Calendar functionality removed - not needed for course selection
 
     /**
-     * Get courses for specific season and department from database (with JOIN FETCH + cache)
+     * Get the current catalog snapshot of a season (empty if not available from the DB)
+     * Callers that need a consistent view across several lookups should hold on to it
      */
-    public List<Course> getCourses(Long seasonId, Long departmentId) {
-        String cacheKey = "courses_" + seasonId + "_" + departmentId;
-        List<Course> cached = getFromCache(cacheKey);
-        if (cached != null) return cached;
-
+    public Optional<CatalogSnapshot> getCatalog(Long seasonId) {
         try {
-            List<com.yeditepe.courseselector.entity.Course> entities = 
-                courseRepository.findBySeasonIdAndDepartmentIdWithSections(seasonId, departmentId);
-            
-            if (entities.isEmpty()) {
-                log.warn("No courses found in database for season {} dept {}, falling back to API", 
-                    seasonId, departmentId);
-                return yeditepeApiService.getCourses(seasonId, departmentId);
-            }
-            
-            List<Course> result = entities.stream()
-                .map(this::convertCourseToDto)
-                .collect(Collectors.toList());
+            return Optional.ofNullable(getSnapshot(seasonId));
+        } catch (Exception e) {
+            log.error("Failed to get catalog for season {} from database", seasonId, e);
+            return Optional.empty();
+        }
+    }
 
-            putInCache(cacheKey, result);
-            return result;
-                
+    /**
+     * Like getCatalog, but a catalog that cannot be loaded (database down and no snapshot known,
+     * load failed or timed out) raises CatalogUnavailableException instead of looking like an
+     * empty season. Empty only if the season has no courses.
+     */
+    public Optional<CatalogSnapshot> requireCatalog(Long seasonId) {
+        try {
+            return Optional.ofNullable(getSnapshot(seasonId));
         } catch (Exception e) {
-            log.error("Failed to get courses from database, falling back to API", e);
-            return yeditepeApiService.getCourses(seasonId, departmentId);
+            log.error("Failed to get catalog for season {} from database", seasonId, e);
+            throw new CatalogUnavailableException(CATALOG_UNAVAILABLE_MESSAGE,
+                Math.max(1, (long) Math.ceil(dbHealthCheckMs / 1000.0)));
         }
     }
 
     /**
-     * Get all courses for a season from database (with JOIN FETCH + cache)
+     * Courses of a department from the given snapshot, or from the API if the snapshot lacks it
+     * @throws CatalogUnavailableException if the API fallback is failing and has nothing cached
      */
-    public List<Course> getAllCoursesForSeason(Long seasonId) {
-        String cacheKey = "all_courses_" + seasonId;
-        List<Course> cached = getFromCache(cacheKey);
-        if (cached != null) {
-            log.info("Returning {} courses from memory cache for season {}", cached.size(), seasonId);
-            return cached;
+    public List<Course> getCourses(CatalogSnapshot snapshot, Long seasonId, Long departmentId) {
+        if (snapshot != null && snapshot.hasDepartment(departmentId)) {
+            return snapshot.getDepartment(departmentId);
         }
+        return upstreamFallback.getCourses(seasonId, departmentId);
+    }
 
-        try {
-            List<com.yeditepe.courseselector.entity.Course> entities = 
-                courseRepository.findBySeasonIdWithSections(seasonId);
-            
-            if (entities.isEmpty()) {
-                log.warn("No courses found in database for season {}, returning empty list", seasonId);
-                return Collections.emptyList();
-            }
-            
-            List<Course> result = entities.stream()
-                .map(this::convertCourseToDto)
-                .collect(Collectors.toList());
+    /**
+     * Get courses of several departments from one snapshot as a read-only view (no copying)
+     */
+    public List<Course> getCourses(CatalogSnapshot snapshot, Long seasonId, List<Long> departmentIds) {
+        List<List<Course>> parts = new ArrayList<>(departmentIds.size());
+        for (Long departmentId : departmentIds) {
+            parts.add(getCourses(snapshot, seasonId, departmentId));
+        }
+        return CatalogSnapshot.union(parts);
+    }
 
-            putInCache(cacheKey, result);
-            log.info("Cached {} courses for season {}", result.size(), seasonId);
-            return result;
-                
-        } catch (Exception e) {
-            log.error("Failed to get all courses for season from database", e);
-            return Collections.emptyList();
+    /**
+     * Search courses of a snapshot by code, name or instructor (empty if there is no snapshot)
+     */
+    public List<Course> searchCourses(CatalogSnapshot snapshot, String query, int limit) {
+        if (snapshot == null) return Collections.emptyList();
+        return snapshot.getSearchIndex().search(query, limit);
+    }
+
+    /**
+     * Changes of a season since the given catalog version, empty if that version is too old,
+     * or was served under another epoch (another instance or before a restart), and the client
+     * has to reload the full catalog
+     */
+    public Optional<CatalogDelta> getChangesSince(Long seasonId, String epoch, long version) {
+        if (!catalogEpoch.equals(epoch)) return Optional.empty();
+        return getCatalog(seasonId).flatMap(snapshot -> deltaLog.since(snapshot, version));
+    }
+
+    /**
+     * Faceted section filter over a snapshot (empty page if there is no snapshot)
+     */
+    public CourseFilterResult filterCourses(CatalogSnapshot snapshot, CourseFilterRequest request, int page, int size) {
+        if (snapshot == null) {
+            return new CourseFilterResult(0, page, size, Collections.emptyList(), Collections.emptyMap());
         }
+        return snapshot.getFacetIndex().filter(request, page, size);
     }
 
     /**
-     * Check if cache is ready (database has data)
+     * Loader for initial loads and background refreshes, runs on the cache-load pool;
+     * a null result (nothing in DB) is not cached, and removes the entry on refresh.
+     * While the shared version is unchanged the current snapshot is kept as is.
      */
-    public boolean isCacheReady() {
+    private CatalogSnapshot loadSnapshot(Long seasonId) {
+        long start = System.currentTimeMillis();
+        CatalogSnapshot current = lastKnownGood.get(seasonId);
+        Versioned<List<com.yeditepe.courseselector.entity.Course>> read;
         try {
-            long seasonCount = seasonRepository.countSeasons();
-            long deptCount = departmentRepository.countDepartments();
-            return seasonCount > 0 && deptCount > 0;
-        } catch (Exception e) {
-            log.error("Failed to check cache status", e);
-            return false;
+            // Same shared version as the snapshot we hold: the rows are the same, skip reading them
+            read = readVersioned(CatalogVersion.courses(seasonId), v -> current != null && v > 0 && v == current.getVersion()
+                ? null : courseRepository.findBySeasonIdWithSections(seasonId));
+            dbBreaker.recordSuccess();
+        } catch (RuntimeException e) {
+            dbBreaker.recordFailure();
+            throw e;
         }
+        if (read.rows == null) {
+            unchangedReloads.incrementAndGet();
+            unverified.remove(seasonId);
+            return current;
+        }
+        List<com.yeditepe.courseselector.entity.Course> entities = read.rows;
+        long version = read.version;
+        if (entities.isEmpty()) return null;
+
+        CatalogSnapshot snapshot;
+        // Each entity row carries its own copies of repeated values; share one instance per value
+        StringDictionary dictionary = new StringDictionary();
+        try {
+            long lastModified = latestSync(entities.stream().map(com.yeditepe.courseselector.entity.Course::getLastSyncedAt));
+            snapshot = CatalogSnapshot.of(seasonId, version, lastModified, dictionary.canonicalize(entities.stream()
+                .map(this::convertCourseToDto)
+                .collect(Collectors.toList())), objectMapper);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog of season " + seasonId, e);
+        }
+        lastLoadMs.put(seasonId, System.currentTimeMillis() - start);
+        lastDictionaryStats.put(seasonId, dictionary.getStats());
+        lastKnownGood.put(seasonId, snapshot);
+        unverified.remove(seasonId);
+        if (snapshotStore.isEnabled()) {
+            loadExecutor.execute(() -> snapshotStore.save(snapshot));
+        }
+        log.info("Cached {} courses in {} departments for season {} (catalog version {}, {} KB serialized, "
+                + "{} KB heap, {} distinct strings saving {} KB)",
+            snapshot.getCourses().size(), snapshot.getDepartmentCount(), seasonId, version,
+            snapshot.getSerializedBytes() / 1024, snapshot.getEstimatedBytes() / 1024, dictionary.size(),
+            snapshot.getSharedStringBytes() / 1024);
+        return snapshot;
+    }
+
+    /**
+     * Check if cache is ready (database has seasons and departments)
+     * Answered from the in-memory catalog, so polling does not hit the database
+     */
+    public boolean isCacheReady() {
+        return getSeasonCount() > 0 && getDepartmentCount() > 0;
+    }
+
+    public long getSeasonCount() {
+        return getSeasonsCatalog().map(c -> c.getItems().size()).orElse(0);
+    }
+
+    public long getDepartmentCount() {
+        return getDepartmentsCatalog().map(c -> c.getItems().size()).orElse(0);
+    }
+
+    /**
+     * Latest season sync time, as recorded when the seasons catalog was built
+     */
+    public Optional<LocalDateTime> getLastSyncTime() {
+        return getSeasonsCatalog()
+            .map(c -> LocalDateTime.ofInstant(Instant.ofEpochMilli(c.getLastModified()), ZoneId.systemDefault()));
     }
 
     /**
@@ -208,23 +789,16 @@ public class CourseCacheService {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            long seasonCount = seasonRepository.countSeasons();
-            long deptCount = departmentRepository.countDepartments();
+            long seasonCount = getSeasonCount();
+            long deptCount = getDepartmentCount();
             
             stats.put("seasons", seasonCount);
             stats.put("departments", deptCount);
             stats.put("ready", seasonCount > 0 && deptCount > 0);
-            stats.put("source", "database");
-            
-            // Get last sync time
-            List<com.yeditepe.courseselector.entity.AcademicSeason> seasons = 
-                seasonRepository.findAll();
-            if (!seasons.isEmpty()) {
-                var latest = seasons.stream()
-                    .max((s1, s2) -> s1.getLastSyncedAt().compareTo(s2.getLastSyncedAt()))
-                    .orElse(seasons.get(0));
-                stats.put("lastSync", latest.getLastSyncedAt());
-            }
+            stats.put("source", getCatalogSource());
+            stats.put("degraded", isDegraded());
+            stats.put("memoryCache", getMemoryCacheStats());
+            getLastSyncTime().ifPresent(lastSync -> stats.put("lastSync", lastSync));
             
         } catch (Exception e) {
             log.error("Failed to get cache stats", e);
@@ -234,6 +808,84 @@ public class CourseCacheService {
         return stats;
     }
 
+    /**
+     * In-memory cache statistics: hits, misses, evictions, load time and byte usage
+     */
+    public Map<String, Object> getMemoryCacheStats() {
+        Cache<Long, CatalogSnapshot> cache = memoryCache.synchronous();
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.estimatedSize());
+        stats.put("bytes", cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        stats.put("maxBytes", maxBytes);
+        stats.put("serializedBytes", getSerializedBytes());
+        stats.put("catalogEpoch", catalogEpoch);
+        stats.put("unchangedReloads", unchangedReloads.get());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRatio", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("loads", cacheStats.loadCount());
+        stats.put("avgLoadMs", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        stats.put("refreshAhead", refreshAheadCount.get());
+        stats.put("inFlightLoads", memoryCache.asMap().values().stream().filter(f -> !f.isDone()).count());
+        stats.put("coalescedLoads", coalescedLoads.get());
+        stats.put("loadTimeouts", loadTimeouts.get());
+        stats.put("degraded", isDegraded());
+        stats.put("staleServes", staleServes.get());
+        stats.put("databaseCircuit", dbBreaker.getStats());
+        stats.put("upstreamFallback", upstreamFallback.getStats());
+        stats.put("deltaHistory", deltaLog.getHistorySizes());
+        stats.put("seasons", getSeasonEntryStats());
+        return stats;
+    }
+
+    /**
+     * Per-season entry details: version, last (re)load time and cost, size, string dictionary, search index size
+     */
+    private Map<Long, Map<String, Object>> getSeasonEntryStats() {
+        long now = System.currentTimeMillis();
+        Map<Long, Map<String, Object>> entries = new TreeMap<>();
+        memoryCache.asMap().forEach((seasonId, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()) return;
+            CatalogSnapshot snapshot = future.join();
+            if (snapshot == null) return;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("version", snapshot.getVersion());
+            entry.put("courses", snapshot.getCourses().size());
+            entry.put("departments", snapshot.getDepartmentCount());
+            entry.put("bytes", snapshot.getEstimatedBytes());
+            entry.put("sharedStringBytes", snapshot.getSharedStringBytes());
+            entry.put("stringDictionary", lastDictionaryStats.get(seasonId));
+            entry.put("searchDocuments", snapshot.getSearchIndex().getDocumentCount());
+            entry.put("searchTerms", snapshot.getSearchIndex().getTermCount());
+            entry.put("lastReload", snapshot.getBuiltAt());
+            entry.put("ageMs", now - snapshot.getBuiltAt());
+            entry.put("lastLoadMs", lastLoadMs.get(seasonId));
+            entry.put("lastAccess", lastAccess.get(seasonId));
+            entries.put(seasonId, entry);
+        });
+        return entries;
+    }
+
+    /**
+     * Bytes held by pre-serialized response bodies (course snapshots, seasons, departments)
+     */
+    private long getSerializedBytes() {
+        long total = 0;
+        for (CompletableFuture<CatalogSnapshot> future : memoryCache.asMap().values()) {
+            if (!future.isDone() || future.isCompletedExceptionally()) continue;
+            CatalogSnapshot snapshot = future.join();
+            if (snapshot != null) total += snapshot.getSerializedBytes();
+        }
+        SerializedCatalog<AcademicSeason> seasons = seasonsCatalog.get();
+        if (seasons != null) total += seasons.getBody().getSizeBytes();
+        SerializedCatalog<Department> departments = departmentsCatalog.get();
+        if (departments != null) total += departments.getBody().getSizeBytes();
+        return total;
+    }
+
     // ========== Conversion Methods ==========
 
     private AcademicSeason convertSeasonToDto(com.yeditepe.courseselector.entity.AcademicSeason entity) {
@@ -0,0 +1,183 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+import com.yeditepe.courseselector.dto.CourseFilterRequest;
+import com.yeditepe.courseselector.dto.CourseFilterResult;
+
+import java.util.*;
+
+/**
+ * Bitmap indexes over the sections of one catalog version
+ * Bit i stands for the i-th section of the snapshot. Each facet value owns a bitmap, so a
+ * filter is an OR within a facet and an AND across facets. Facet counts are computed with
+ * every selection except the facet's own (so other values of a selected facet stay visible).
+ */
+public final class CourseFacetIndex {
+
+    public static final String DAY = "day";
+    public static final String CREDIT = "credit";
+    public static final String ECTS = "ects";
+    public static final String DEPARTMENT = "department";
+    public static final String TYPE = "type";
+    public static final String HAS_QUOTA = "hasQuota";
+
+    // Time window resolution
+    private static final int SLOT_MINUTES = 10;
+    private static final int SLOTS = 24 * 60 / SLOT_MINUTES;
+
+    private final List<Course> courses;
+    private final Map<String, Map<String, BitSet>> facets = new LinkedHashMap<>();
+    private final BitSet[] busy = new BitSet[SLOTS]; // slot -> sections meeting during it
+    private final BitSet timed = new BitSet();       // sections with at least one timed meeting
+
+    private CourseFacetIndex(List<Course> courses) {
+        this.courses = courses;
+        for (String facet : new String[] {DAY, CREDIT, ECTS, DEPARTMENT, TYPE, HAS_QUOTA}) {
+            facets.put(facet, new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            busy[slot] = new BitSet();
+        }
+    }
+
+    public static CourseFacetIndex build(List<Course> courses) {
+        CourseFacetIndex index = new CourseFacetIndex(courses);
+        for (int i = 0; i < courses.size(); i++) {
+            index.add(i, courses.get(i));
+        }
+        return index;
+    }
+
+    private void add(int bit, Course course) {
+        mark(CREDIT, course.getCredit(), bit);
+        mark(ECTS, course.getEcts(), bit);
+        mark(DEPARTMENT, course.getDepartmentId(), bit);
+        if (course.getQuota() != null && course.getFullQuota() != null) {
+            // quota = capacity, fullQuota = enrolled (see QuotaInfo)
+            mark(HAS_QUOTA, course.getQuota() > course.getFullQuota(), bit);
+        }
+        if (course.getDetails() == null) return;
+
+        for (CourseDetail detail : course.getDetails()) {
+            mark(DAY, detail.getDay(), bit);
+            // type is what the database keeps (LEC, LAB, ...); typeShort only comes with live API data
+            mark(TYPE, detail.getType() != null ? detail.getType() : detail.getTypeShort(), bit);
+            int start = minutes(detail.getStartHour());
+            int end = minutes(detail.getEndHour());
+            if (start >= 0 && end > start) {
+                timed.set(bit);
+                for (int slot = start / SLOT_MINUTES; slot < SLOTS && slot * SLOT_MINUTES < end; slot++) {
+                    busy[slot].set(bit);
+                }
+            }
+        }
+    }
+
+    private void mark(String facet, Object value, int bit) {
+        if (value == null || value.toString().isEmpty()) return;
+        facets.get(facet).computeIfAbsent(value.toString(), k -> new BitSet()).set(bit);
+    }
+
+    public CourseFilterResult filter(CourseFilterRequest request, int page, int size) {
+        Map<String, BitSet> selections = new LinkedHashMap<>();
+        select(selections, DAY, request.getDays());
+        select(selections, CREDIT, request.getCredits());
+        select(selections, ECTS, request.getEcts());
+        select(selections, DEPARTMENT, request.getDepartmentIds());
+        select(selections, TYPE, request.getTypes());
+        if (request.getHasQuota() != null) {
+            select(selections, HAS_QUOTA, Collections.singletonList(request.getHasQuota()));
+        }
+        BitSet window = timeWindow(request.getFrom(), request.getTo());
+
+        BitSet matching = matchingExcept(selections, window, null);
+        List<Course> pageCourses = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (int bit = matching.nextSetBit(0); bit >= 0 && pageCourses.size() < size; bit = matching.nextSetBit(bit + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                pageCourses.add(courses.get(bit));
+            }
+        }
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, BitSet>> facet : facets.entrySet()) {
+            BitSet base = matchingExcept(selections, window, facet.getKey());
+            Map<String, Integer> valueCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, BitSet> value : facet.getValue().entrySet()) {
+                BitSet intersection = (BitSet) value.getValue().clone();
+                intersection.and(base);
+                valueCounts.put(value.getKey(), intersection.cardinality());
+            }
+            counts.put(facet.getKey(), valueCounts);
+        }
+
+        return new CourseFilterResult(matching.cardinality(), page, size, pageCourses, counts);
+    }
+
+    /**
+     * OR of the bitmaps of the selected values; values the season does not have match nothing
+     */
+    private void select(Map<String, BitSet> selections, String facet, List<?> values) {
+        if (values == null || values.isEmpty()) return;
+        BitSet union = new BitSet(courses.size());
+        for (Object value : values) {
+            if (value == null) continue;
+            BitSet bits = facets.get(facet).get(value.toString());
+            if (bits != null) union.or(bits);
+        }
+        selections.put(facet, union);
+    }
+
+    private BitSet matchingExcept(Map<String, BitSet> selections, BitSet window, String excludedFacet) {
+        BitSet result = new BitSet(courses.size());
+        result.set(0, courses.size());
+        for (Map.Entry<String, BitSet> selection : selections.entrySet()) {
+            if (!selection.getKey().equals(excludedFacet)) {
+                result.and(selection.getValue());
+            }
+        }
+        if (window != null) {
+            result.and(window);
+        }
+        return result;
+    }
+
+    /**
+     * Sections whose meetings all fall inside [from, to] (10 minute resolution), null if no window
+     */
+    private BitSet timeWindow(String from, String to) {
+        int start = from != null ? minutes(from) : 0;
+        int end = to != null ? minutes(to) : 24 * 60;
+        if ((from == null && to == null) || start < 0 || end < 0) return null;
+
+        BitSet outside = new BitSet(courses.size());
+        int firstSlot = start / SLOT_MINUTES;
+        int endSlot = (end + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (slot < firstSlot || slot >= endSlot) {
+                outside.or(busy[slot]);
+            }
+        }
+        BitSet inside = (BitSet) timed.clone();
+        inside.andNot(outside);
+        return inside;
+    }
+
+    /**
+     * Minutes since midnight of "HH:mm" or "HH", -1 if not parseable
+     */
+    private static int minutes(String time) {
+        if (time == null || time.isBlank()) return -1;
+        try {
+            String[] parts = time.trim().split(":");
+            int hours = Integer.parseInt(parts[0]);
+            int mins = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return hours * 60 + mins;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
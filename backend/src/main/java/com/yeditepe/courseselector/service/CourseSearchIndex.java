@@ -0,0 +1,223 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+
+import java.util.*;
+
+/**
+ * Inverted index over course code, names (TR/EN) and instructor of one catalog version
+ * Documents are course codes (all sections of a code form one document). Terms are
+ * Turkish-aware case folded, so "isletme", "İŞLETME" and "işletme" match the same term.
+ * A query matches a document if every query token matches one of its terms exactly,
+ * as a prefix, or (for longer tokens) within a small edit distance.
+ */
+public final class CourseSearchIndex {
+
+    private static final Locale TURKISH = new Locale("tr", "TR");
+
+    private static final int EXACT_SCORE = 4;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+    private static final int CODE_BONUS = 2;
+
+    private final List<List<Course>> documents;   // docId -> sections
+    private final String[] terms;                  // sorted vocabulary
+    private final int[][] postings;                // term index -> sorted docIds
+    private final BitSet codeTerms;                // term index -> term comes from a course code
+    private final Map<Integer, List<Integer>> termsByLength = new HashMap<>();
+
+    private CourseSearchIndex(List<List<Course>> documents, SortedMap<String, Set<Integer>> index,
+                              Set<String> codeVocabulary) {
+        this.documents = documents;
+        this.terms = new String[index.size()];
+        this.postings = new int[index.size()][];
+        this.codeTerms = new BitSet(index.size());
+        int t = 0;
+        for (Map.Entry<String, Set<Integer>> entry : index.entrySet()) {
+            terms[t] = entry.getKey();
+            postings[t] = entry.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+            if (codeVocabulary.contains(entry.getKey())) codeTerms.set(t);
+            termsByLength.computeIfAbsent(terms[t].length(), k -> new ArrayList<>()).add(t);
+            t++;
+        }
+    }
+
+    public static CourseSearchIndex build(List<Course> courses) {
+        Map<String, List<Course>> byCode = new LinkedHashMap<>();
+        for (Course course : courses) {
+            if (course.getCode() != null) {
+                byCode.computeIfAbsent(course.getCode(), k -> new ArrayList<>()).add(course);
+            }
+        }
+
+        List<List<Course>> documents = new ArrayList<>(byCode.size());
+        SortedMap<String, Set<Integer>> index = new TreeMap<>();
+        Set<String> codeVocabulary = new HashSet<>();
+        for (List<Course> sections : byCode.values()) {
+            int docId = documents.size();
+            documents.add(Collections.unmodifiableList(sections));
+
+            Course first = sections.get(0);
+            List<String> codeTokens = tokenize(first.getCode());
+            codeTokens.add(fold(first.getCode()).replaceAll("[^\\p{L}\\p{N}]", ""));
+            for (String token : codeTokens) {
+                index.computeIfAbsent(token, k -> new HashSet<>()).add(docId);
+                codeVocabulary.add(token);
+            }
+            for (Course section : sections) {
+                for (String text : new String[] {section.getName(), section.getNameEn(), section.getNameTr(),
+                        section.getInstructor()}) {
+                    for (String token : tokenize(text)) {
+                        index.computeIfAbsent(token, k -> new HashSet<>()).add(docId);
+                    }
+                }
+            }
+        }
+        return new CourseSearchIndex(documents, index, codeVocabulary);
+    }
+
+    /**
+     * Top matching courses (all sections of each matched code), best first
+     */
+    public List<Course> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        int[] scores = new int[documents.size()];
+        int[] matchedTokens = new int[documents.size()];
+        for (int q = 0; q < tokens.size(); q++) {
+            int[] tokenScores = scoreToken(tokens.get(q));
+            for (int doc = 0; doc < tokenScores.length; doc++) {
+                if (tokenScores[doc] > 0 && matchedTokens[doc] == q) {
+                    matchedTokens[doc]++;
+                    scores[doc] += tokenScores[doc];
+                }
+            }
+        }
+
+        // Keep documents that matched every token, best score first, then by code
+        List<Integer> hits = new ArrayList<>();
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (matchedTokens[doc] == tokens.size()) hits.add(doc);
+        }
+        hits.sort(Comparator.<Integer>comparingInt(doc -> -scores[doc])
+            .thenComparing(doc -> documents.get(doc).get(0).getCode()));
+
+        List<Course> results = new ArrayList<>();
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            results.addAll(documents.get(hits.get(i)));
+        }
+        return results;
+    }
+
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Best score of one query token per document: exact, else prefix, else fuzzy
+     */
+    private int[] scoreToken(String token) {
+        int[] best = new int[documents.size()];
+        boolean found = false;
+
+        int from = lowerBound(token);
+        for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+            int score = (terms[t].length() == token.length() ? EXACT_SCORE : PREFIX_SCORE)
+                + (codeTerms.get(t) ? CODE_BONUS : 0);
+            found |= apply(best, t, score);
+        }
+
+        if (!found && token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            for (int length = token.length() - maxEdits; length <= token.length() + maxEdits; length++) {
+                for (int t : termsByLength.getOrDefault(length, Collections.emptyList())) {
+                    if (withinDistance(token, terms[t], maxEdits)) {
+                        apply(best, t, FUZZY_SCORE);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean apply(int[] best, int term, int score) {
+        for (int doc : postings[term]) {
+            if (score > best[doc]) best[doc] = score;
+        }
+        return postings[term].length > 0;
+    }
+
+    private int lowerBound(String token) {
+        int low = 0, high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(token) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Bounded Levenshtein distance check (single row, early exit once every cell exceeds the bound)
+     */
+    static boolean withinDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) return false;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) return false;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Turkish-aware case folding: lower-case with Turkish rules (İ→i, I→ı), then drop
+     * Turkish diacritics so queries typed without them still match
+     */
+    static String fold(String text) {
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder folded = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            switch (c) {
+                case 'ı': folded.append('i'); break;
+                case 'ş': folded.append('s'); break;
+                case 'ğ': folded.append('g'); break;
+                case 'ü': folded.append('u'); break;
+                case 'ö': folded.append('o'); break;
+                case 'ç': folded.append('c'); break;
+                case 'â': folded.append('a'); break;
+                case 'î': folded.append('i'); break;
+                case 'û': folded.append('u'); break;
+                case '\u0307': break; // combining dot left over from lower-casing İ in other locales
+                default: folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Approximate retained heap size of cached catalog values (64-bit JVM, compressed oops)
+ * Used as the cache weigher so the memory budget is enforced in bytes, not entries
+ */
+public final class CourseSizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int BOXED_NUMBER = 16;
+    private static final int LIST_OVERHEAD = 40;
+
+    private CourseSizeEstimator() {
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) return 0;
+        if (value instanceof String) return estimateString((String) value);
+        if (value instanceof Course) return estimateCourse((Course) value);
+        if (value instanceof CourseDetail) return estimateDetail((CourseDetail) value);
+        if (value instanceof Collection) {
+            Collection<?> items = (Collection<?>) value;
+            long size = LIST_OVERHEAD + (long) items.size() * REFERENCE;
+            for (Object item : items) {
+                size += estimate(item);
+            }
+            return size;
+        }
+        return OBJECT_HEADER;
+    }
+
+    private static long estimateCourse(Course c) {
+        return OBJECT_HEADER + 14 * REFERENCE
+            + estimateString(c.getCode()) + estimateString(c.getName())
+            + estimateString(c.getNameEn()) + estimateString(c.getNameTr())
+            + estimateString(c.getInfo()) + estimateString(c.getInstructor())
+            + estimateString(c.getDepartmentName())
+            + 5 * BOXED_NUMBER + BOXED_NUMBER // section, credit, ects, quotas + departmentId
+            + estimate(c.getDetails());
+    }
+
+    private static long estimateDetail(CourseDetail d) {
+        return OBJECT_HEADER + 10 * REFERENCE
+            + estimateString(d.getFullName()) + estimateString(d.getType())
+            + estimateString(d.getTypeShort()) + estimateString(d.getDay())
+            + estimateString(d.getStartHour()) + estimateString(d.getEndHour())
+            + estimateString(d.getRoomFloor()) + estimateString(d.getRoomName())
+            + estimateString(d.getNameShort());
+    }
+
+    /**
+     * Bytes of the strings referenced from more than one place in the given courses
+     * estimate() counts a string once per reference; the heap holds a shared instance only once.
+     */
+    public static long estimateSharedStrings(Collection<Course> courses) {
+        Set<String> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long shared = 0;
+        for (Course c : courses) {
+            shared += shared(seen, c.getCode(), c.getName(), c.getNameEn(), c.getNameTr(), c.getInfo(),
+                c.getInstructor(), c.getDepartmentName());
+            if (c.getDetails() == null) continue;
+            for (CourseDetail d : c.getDetails()) {
+                shared += shared(seen, d.getFullName(), d.getType(), d.getTypeShort(), d.getDay(),
+                    d.getStartHour(), d.getEndHour(), d.getRoomFloor(), d.getRoomName(), d.getNameShort());
+            }
+        }
+        return shared;
+    }
+
+    private static long shared(Set<String> seen, String... values) {
+        long shared = 0;
+        for (String value : values) {
+            if (value != null && !seen.add(value)) shared += estimateString(value);
+        }
+        return shared;
+    }
+
+    static long estimateString(String s) {
+        // String object + backing array (Latin-1 compact strings, UTF-16 for Turkish characters)
+        return s == null ? 0 : 24 + OBJECT_HEADER + 2L * s.length();
+    }
+}
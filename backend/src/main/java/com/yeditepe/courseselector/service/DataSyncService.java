@@ -1,26 +1,35 @@
 package com.yeditepe.courseselector.service;
 
 import com.yeditepe.courseselector.entity.AcademicSeason;
-import com.yeditepe.courseselector.entity.Course;
-import com.yeditepe.courseselector.entity.CourseSection;
+import com.yeditepe.courseselector.entity.CatalogVersion;
 import com.yeditepe.courseselector.entity.Department;
 import com.yeditepe.courseselector.repository.AcademicSeasonRepository;
-import com.yeditepe.courseselector.repository.CourseRepository;
-import com.yeditepe.courseselector.repository.CourseSectionRepository;
 import com.yeditepe.courseselector.repository.DepartmentRepository;
+import com.yeditepe.courseselector.event.CatalogSyncedEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 
 /**
  * Data Synchronization Service
  * Syncs data from Yeditepe API to Database
  * Scheduled to run daily at 06:00
+ * Upstream calls run outside any transaction. Seasons and departments are written, versioned
+ * and announced in one short transaction each. Courses are written per department as its fetch
+ * completes, then the season's version is bumped and announced once after the last department.
  */
 @Service
 @Slf4j
@@ -29,19 +38,40 @@ public class DataSyncService {
     private final YeditepeApiService yeditepeApiService;
     private final AcademicSeasonRepository seasonRepository;
     private final DepartmentRepository departmentRepository;
-    private final CourseRepository courseRepository;
-    private final CourseSectionRepository sectionRepository;
+    private final CourseCacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersionService catalogVersions;
+    private final CourseBulkWriter bulkWriter;
+    // Course sync pipeline: parallel upstream fetches (bounded), each department written in its own
+    // transaction as soon as its fetch completes
+    private final ExecutorService upstreamExecutor;
+    private final Semaphore fetchPermits;
+    private final TransactionTemplate syncTransaction;
+
+    // Outcome of the last full sync and of the last course sync, kept for /api/sync/status
+    private volatile SyncRun lastRun;
+    private volatile int[] lastCourseCounts = new int[3]; // created, updated, failed departments
 
     public DataSyncService(YeditepeApiService yeditepeApiService,
                           AcademicSeasonRepository seasonRepository,
                           DepartmentRepository departmentRepository,
-                          CourseRepository courseRepository,
-                          CourseSectionRepository sectionRepository) {
+                          CourseCacheService cacheService,
+                          ApplicationEventPublisher eventPublisher,
+                          CatalogVersionService catalogVersions,
+                          CourseBulkWriter bulkWriter,
+                          @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${data.sync.fetch-concurrency:6}") int fetchConcurrency) {
         this.yeditepeApiService = yeditepeApiService;
         this.seasonRepository = seasonRepository;
         this.departmentRepository = departmentRepository;
-        this.courseRepository = courseRepository;
-        this.sectionRepository = sectionRepository;
+        this.cacheService = cacheService;
+        this.eventPublisher = eventPublisher;
+        this.catalogVersions = catalogVersions;
+        this.bulkWriter = bulkWriter;
+        this.upstreamExecutor = upstreamExecutor;
+        this.fetchPermits = new Semaphore(Math.max(1, fetchConcurrency));
+        this.syncTransaction = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -49,7 +79,6 @@ public class DataSyncService {
      * Cron format: second minute hour day-of-month month day-of-week
      */
     @Scheduled(cron = "${data.sync.cron:0 0 6 * * *}")
-    @Transactional
     public void scheduledSync() {
         log.info("🔄 Scheduled data sync started at {}", LocalDateTime.now());
         try {
@@ -63,9 +92,11 @@ public class DataSyncService {
     /**
      * Manual sync - can be triggered via API
      */
-    @Transactional
     public void syncAllData() {
         long startTime = System.currentTimeMillis();
+        SyncRun run = new SyncRun();
+        run.setStartedAt(LocalDateTime.now());
+        lastCourseCounts = new int[3];
         
         log.info("📊 Starting full data synchronization...");
         
@@ -84,50 +115,33 @@ public class DataSyncService {
             
             long duration = System.currentTimeMillis() - startTime;
             log.info("✅ Full synchronization completed in {} ms", duration);
+            run.setSuccess(true);
             
         } catch (Exception e) {
             log.error("❌ Data synchronization failed", e);
+            run.setError(e.getMessage());
             throw new RuntimeException("Data sync failed: " + e.getMessage(), e);
+        } finally {
+            int[] courseCounts = lastCourseCounts;
+            run.setDurationMs(System.currentTimeMillis() - startTime);
+            run.setCoursesCreated(courseCounts[0]);
+            run.setCoursesUpdated(courseCounts[1]);
+            run.setFailedDepartments(courseCounts[2]);
+            lastRun = run;
         }
     }
 
     /**
      * Sync Academic Seasons
      */
-    @Transactional
     public void syncSeasons() {
         try {
             List<com.yeditepe.courseselector.dto.AcademicSeason> apiSeasons = 
                 yeditepeApiService.getAcademicSeasons();
             
             log.info("Found {} seasons from API", apiSeasons.size());
-            
-            int updated = 0, created = 0;
-            
-            for (com.yeditepe.courseselector.dto.AcademicSeason apiSeason : apiSeasons) {
-                var existingSeason = seasonRepository.findById(apiSeason.getId());
-                
-                AcademicSeason season;
-                if (existingSeason.isPresent()) {
-                    season = existingSeason.get();
-                    updated++;
-                } else {
-                    season = new AcademicSeason();
-                    season.setId(apiSeason.getId());
-                    created++;
-                }
-                
-                season.setName(apiSeason.getName());
-                season.setNameEn(apiSeason.getNameEn());
-                season.setNameTr(apiSeason.getNameTr());
-                season.setActive(apiSeason.getActive());
-                season.setStartDate(apiSeason.getStartDate());
-                season.setEndDate(apiSeason.getEndDate());
-                
-                seasonRepository.save(season);
-            }
-            
-            log.info("✅ Seasons synced: {} created, {} updated", created, updated);
+            catalogVersions.ensureExists(CatalogVersion.SEASONS);
+            syncTransaction.executeWithoutResult(status -> saveSeasons(apiSeasons));
             
         } catch (Exception e) {
             log.error("❌ Failed to sync seasons", e);
@@ -135,43 +149,48 @@ public class DataSyncService {
         }
     }
 
+    private void saveSeasons(List<com.yeditepe.courseselector.dto.AcademicSeason> apiSeasons) {
+        int updated = 0, created = 0;
+
+        for (com.yeditepe.courseselector.dto.AcademicSeason apiSeason : apiSeasons) {
+            var existingSeason = seasonRepository.findById(apiSeason.getId());
+
+            AcademicSeason season;
+            if (existingSeason.isPresent()) {
+                season = existingSeason.get();
+                updated++;
+            } else {
+                season = new AcademicSeason();
+                season.setId(apiSeason.getId());
+                created++;
+            }
+
+            season.setName(apiSeason.getName());
+            season.setNameEn(apiSeason.getNameEn());
+            season.setNameTr(apiSeason.getNameTr());
+            season.setActive(apiSeason.getActive());
+            season.setStartDate(apiSeason.getStartDate());
+            season.setEndDate(apiSeason.getEndDate());
+
+            seasonRepository.save(season);
+        }
+
+        log.info("✅ Seasons synced: {} created, {} updated", created, updated);
+        catalogVersions.bump(CatalogVersion.SEASONS);
+        eventPublisher.publishEvent(CatalogSyncedEvent.seasons());
+    }
+
     /**
      * Sync Departments
      */
-    @Transactional
     public void syncDepartments() {
         try {
             List<com.yeditepe.courseselector.dto.Department> apiDepartments = 
                 yeditepeApiService.getDepartments();
             
             log.info("Found {} departments from API", apiDepartments.size());
-            
-            int updated = 0, created = 0;
-            
-            for (com.yeditepe.courseselector.dto.Department apiDept : apiDepartments) {
-                var existingDept = departmentRepository.findById(apiDept.getId());
-                
-                Department dept;
-                if (existingDept.isPresent()) {
-                    dept = existingDept.get();
-                    updated++;
-                } else {
-                    dept = new Department();
-                    dept.setId(apiDept.getId());
-                    created++;
-                }
-                
-                dept.setName(apiDept.getName());
-                dept.setNameEn(apiDept.getNameEn());
-                dept.setNameTr(apiDept.getNameTr());
-                dept.setCode(apiDept.getCode());
-                dept.setFacultyId(apiDept.getFacultyId());
-                dept.setFacultyName(apiDept.getFacultyName());
-                
-                departmentRepository.save(dept);
-            }
-            
-            log.info("✅ Departments synced: {} created, {} updated", created, updated);
+            catalogVersions.ensureExists(CatalogVersion.DEPARTMENTS);
+            syncTransaction.executeWithoutResult(status -> saveDepartments(apiDepartments));
             
         } catch (Exception e) {
             log.error("❌ Failed to sync departments", e);
@@ -179,10 +198,40 @@ public class DataSyncService {
         }
     }
 
+    private void saveDepartments(List<com.yeditepe.courseselector.dto.Department> apiDepartments) {
+        int updated = 0, created = 0;
+
+        for (com.yeditepe.courseselector.dto.Department apiDept : apiDepartments) {
+            var existingDept = departmentRepository.findById(apiDept.getId());
+
+            Department dept;
+            if (existingDept.isPresent()) {
+                dept = existingDept.get();
+                updated++;
+            } else {
+                dept = new Department();
+                dept.setId(apiDept.getId());
+                created++;
+            }
+
+            dept.setName(apiDept.getName());
+            dept.setNameEn(apiDept.getNameEn());
+            dept.setNameTr(apiDept.getNameTr());
+            dept.setCode(apiDept.getCode());
+            dept.setFacultyId(apiDept.getFacultyId());
+            dept.setFacultyName(apiDept.getFacultyName());
+
+            departmentRepository.save(dept);
+        }
+
+        log.info("✅ Departments synced: {} created, {} updated", created, updated);
+        catalogVersions.bump(CatalogVersion.DEPARTMENTS);
+        eventPublisher.publishEvent(CatalogSyncedEvent.departments());
+    }
+
     /**
      * Sync Courses for all seasons and departments
      */
-    @Transactional
     public void syncCourses() {
         try {
             List<AcademicSeason> seasons = seasonRepository.findAll();
@@ -206,20 +255,32 @@ public class DataSyncService {
             
             log.info("Syncing courses for season: {} (ID: {})", activeSeason.getName(), activeSeason.getId());
             
-            int totalCreated = 0, totalUpdated = 0;
-            
-            for (Department dept : departments) {
-                try {
-                    int[] counts = syncCoursesForSeasonAndDepartment(activeSeason.getId(), dept.getId());
-                    totalCreated += counts[0];
-                    totalUpdated += counts[1];
-                } catch (Exception e) {
-                    log.error("Failed to sync courses for dept {}: {}", dept.getName(), e.getMessage());
+            long start = System.currentTimeMillis();
+            Long seasonId = activeSeason.getId();
+            CourseBulkWriter.Result total = new CourseBulkWriter.Result();
+            catalogVersions.ensureExists(CatalogVersion.courses(seasonId));
+            int failed;
+            // Readers keep the current snapshot (no refresh-ahead reloads) while departments are committed one by one
+            cacheService.beginCatalogUpdate();
+            try {
+                failed = writeDepartmentsAsFetched(seasonId, departments, total);
+                // A new catalog version only when rows changed, so clients' versions and deltas stay valid
+                if (total.getCreated() + total.getUpdated() > 0) {
+                    syncTransaction.executeWithoutResult(status -> {
+                        catalogVersions.bump(CatalogVersion.courses(seasonId));
+                        eventPublisher.publishEvent(CatalogSyncedEvent.courses(seasonId));
+                    });
                 }
+            } finally {
+                cacheService.endCatalogUpdate();
             }
+            lastCourseCounts = new int[] {total.getCreated(), total.getUpdated(), failed};
             
-            log.info("✅ Courses synced for season {}: {} created, {} updated", 
-                activeSeason.getName(), totalCreated, totalUpdated);
+            log.info("✅ Courses synced for season {} in {} ms: {} created, {} updated, {} unchanged, {} departments failed", 
+                activeSeason.getName(), System.currentTimeMillis() - start,
+                total.getCreated(), total.getUpdated(), total.getUnchanged(), failed);
+            log.info("Course sync phases (summed over departments): fetch {} ms, read {} ms, write {} ms, {} statements",
+                total.getFetchMs(), total.getReadMs(), total.getWriteMs(), total.getStatements());
             
         } catch (Exception e) {
             log.error("❌ Failed to sync courses", e);
@@ -228,91 +289,101 @@ public class DataSyncService {
     }
 
     /**
-     * Sync courses for specific season and department
+     * Fetch all departments in parallel (at most data.sync.fetch-concurrency upstream calls at a time)
+     * and write each one in its own transaction in completion order, so a written department does not
+     * wait for the slowest fetch and no transaction is open during upstream calls.
+     * Returns the number of departments that failed to fetch or write.
      */
-    @Transactional
-    public int[] syncCoursesForSeasonAndDepartment(Long seasonId, Long departmentId) {
-        int created = 0, updated = 0;
-        
+    private int writeDepartmentsAsFetched(Long seasonId, List<Department> departments, CourseBulkWriter.Result total) {
+        CompletionService<DepartmentFetch> fetches = new ExecutorCompletionService<>(upstreamExecutor);
+        for (Department dept : departments) {
+            fetches.submit(() -> fetchDepartment(seasonId, dept));
+        }
+        int failed = 0;
+        for (int i = 0; i < departments.size(); i++) {
+            if (!writeDepartment(seasonId, nextFetch(fetches), total)) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private static DepartmentFetch nextFetch(CompletionService<DepartmentFetch> fetches) {
         try {
-            List<com.yeditepe.courseselector.dto.Course> apiCourses = 
-                yeditepeApiService.getCourses(seasonId, departmentId);
-            
-            for (com.yeditepe.courseselector.dto.Course apiCourse : apiCourses) {
-                var existingCourse = courseRepository.findBySeasonIdAndCodeAndSection(
-                    seasonId, apiCourse.getCode(), apiCourse.getSection()
-                );
-                
-                Course course;
-                if (existingCourse.isPresent()) {
-                    course = existingCourse.get();
-                    updated++;
-                } else {
-                    course = new Course();
-                    created++;
-                }
-                
-                course.setSeasonId(seasonId);
-                course.setDepartmentId(departmentId);
-                course.setCode(apiCourse.getCode());
-                course.setSection(apiCourse.getSection());
-                course.setName(apiCourse.getName());
-                course.setNameEn(apiCourse.getNameEn());
-                course.setNameTr(apiCourse.getNameTr());
-                course.setCredit(apiCourse.getCredit());
-                course.setEcts(apiCourse.getEcts());
-                course.setFullQuota(apiCourse.getFullQuota());
-                course.setQuota(apiCourse.getQuota());
-                course.setInfo(apiCourse.getInfo());
-                course.setInstructor(apiCourse.getInstructor());
-                course.setDepartmentName(apiCourse.getDepartmentName());
-                
-                course = courseRepository.save(course);
-                
-                // Sync course sections (details)
-                if (apiCourse.getDetails() != null && !apiCourse.getDetails().isEmpty()) {
-                    // Delete old sections
-                    sectionRepository.deleteByCourseId(course.getId());
-                    
-                    // Create new sections
-                    for (com.yeditepe.courseselector.dto.CourseDetail detail : apiCourse.getDetails()) {
-                        CourseSection section = new CourseSection();
-                        section.setCourse(course);
-                        section.setDay(detail.getDay());
-                        section.setStartTime(detail.getStartTime());
-                        section.setEndTime(detail.getEndTime());
-                        section.setBuilding(detail.getBuilding());
-                        section.setRoom(detail.getRoom());
-                        section.setType(detail.getType());
-                        sectionRepository.save(section);
-                    }
-                }
+            return fetches.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for department courses", e);
+        } catch (ExecutionException e) {
+            // fetchDepartment keeps its own failures, anything else is a bug
+            throw new IllegalStateException("Department fetch failed unexpectedly", e.getCause());
+        }
+    }
+
+    /**
+     * Write one fetched department and commit it; false if its fetch or write failed
+     */
+    private boolean writeDepartment(Long seasonId, DepartmentFetch fetch, CourseBulkWriter.Result total) {
+        Department dept = fetch.department;
+        if (fetch.error != null) {
+            log.error("Failed to fetch courses for dept {}: {}", dept.getName(), fetch.error.getMessage());
+            return false;
+        }
+        try {
+            CourseBulkWriter.Result result = syncTransaction.execute(
+                status -> bulkWriter.write(seasonId, dept.getId(), fetch.courses));
+            result.setFetchMs(fetch.fetchMs);
+            total.add(result);
+            log.debug("Dept {}: {} courses, fetch {} ms, read {} ms, write {} ms, {} statements",
+                dept.getId(), fetch.courses.size(), fetch.fetchMs, result.getReadMs(), result.getWriteMs(),
+                result.getStatements());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to write courses for dept {}: {}", dept.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private DepartmentFetch fetchDepartment(Long seasonId, Department dept) {
+        DepartmentFetch fetch = new DepartmentFetch(dept);
+        try {
+            fetchPermits.acquire();
+            try {
+                long start = System.currentTimeMillis();
+                fetch.courses = yeditepeApiService.getCourses(seasonId, dept.getId());
+                fetch.fetchMs = System.currentTimeMillis() - start;
+            } finally {
+                fetchPermits.release();
             }
-            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fetch.error = e;
         } catch (Exception e) {
-            log.error("Failed to sync courses for season {} dept {}: {}", 
-                seasonId, departmentId, e.getMessage());
+            fetch.error = e;
+        }
+        return fetch;
+    }
+
+    private static final class DepartmentFetch {
+        private final Department department;
+        private List<com.yeditepe.courseselector.dto.Course> courses;
+        private long fetchMs;
+        private Exception error;
+
+        private DepartmentFetch(Department department) {
+            this.department = department;
         }
-        
-        return new int[]{created, updated};
     }
 
     /**
-     * Get sync status
+     * Sync status from in-memory state only (counts come from the catalog built at sync time)
      */
     public SyncStatus getSyncStatus() {
         SyncStatus status = new SyncStatus();
-        status.setSeasonCount(seasonRepository.countSeasons());
-        status.setDepartmentCount(departmentRepository.countDepartments());
-        
-        List<AcademicSeason> seasons = seasonRepository.findAll();
-        if (!seasons.isEmpty()) {
-            AcademicSeason latest = seasons.stream()
-                .max((s1, s2) -> s1.getLastSyncedAt().compareTo(s2.getLastSyncedAt()))
-                .orElse(seasons.get(0));
-            status.setLastSyncTime(latest.getLastSyncedAt());
-        }
-        
+        status.setSeasonCount(cacheService.getSeasonCount());
+        status.setDepartmentCount(cacheService.getDepartmentCount());
+        status.setLastSyncTime(cacheService.getLastSyncTime().orElse(null));
+        status.setLastRun(lastRun);
         return status;
     }
 
@@ -321,5 +392,17 @@ public class DataSyncService {
         private long seasonCount;
         private long departmentCount;
         private LocalDateTime lastSyncTime;
+        private SyncRun lastRun; // Last full sync run of this instance (null if none yet)
+    }
+
+    @lombok.Data
+    public static class SyncRun {
+        private LocalDateTime startedAt;
+        private long durationMs;
+        private boolean success;
+        private String error;
+        private int coursesCreated;
+        private int coursesUpdated;
+        private int failedDepartments;
     }
 }
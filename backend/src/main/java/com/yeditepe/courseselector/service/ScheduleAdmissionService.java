@@ -0,0 +1,190 @@
+package com.yeditepe.courseselector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the schedule solver
+ * Solver work runs on a dedicated bounded pool instead of Tomcat request threads,
+ * so expensive generations cannot starve cheap endpoints (/api/seasons, /api/departments).
+ * Callers get a CompletableFuture and do not block while the work is queued or running.
+ * Queued work is ordered by estimated cost (cheap first), and new work is rejected
+ * with ScheduleOverloadException (429 + Retry-After) once the queue is full.
+ * Work still running after the execution timeout is interrupted.
+ */
+@Service
+public class ScheduleAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleAdmissionService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long executionTimeoutMs;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalExecutionMs = new AtomicLong();
+
+    public ScheduleAdmissionService(@Value("${schedule.executor.threads:0}") int threads,
+                                    @Value("${schedule.executor.queue-capacity:100}") int queueCapacity,
+                                    @Value("${schedule.executor.timeout-ms:60000}") long executionTimeoutMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.executionTimeoutMs = executionTimeoutMs;
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new BoundedPriorityQueue(queueCapacity),
+            new NamedThreadFactory("schedule-worker-"));
+        log.info("Schedule executor started with {} workers, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Queue solver work on the bounded pool
+     * Lower cost class (power of two of the estimated cost) runs first;
+     * work in the same class keeps submission order.
+     * The future fails with TimeoutException after the execution timeout.
+     */
+    public <T> CompletableFuture<T> submit(long cost, Supplier<T> work) {
+        submitted.incrementAndGet();
+
+        PrioritizedTask<T> task = new PrioritizedTask<>(work, cost, sequence.incrementAndGet());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            int depth = executor.getQueue().size();
+            long retryAfter = estimateRetryAfterSeconds(depth);
+            log.warn("Schedule queue full ({} waiting), rejecting request with cost {}", depth, cost);
+            throw new ScheduleOverloadException(
+                "Sunucu şu anda yoğun, lütfen " + retryAfter + " saniye sonra tekrar deneyin.", retryAfter);
+        }
+
+        return task.result
+            .orTimeout(executionTimeoutMs, TimeUnit.MILLISECONDS)
+            .whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    timedOut.incrementAndGet();
+                    executor.remove(task);
+                    task.interrupt();
+                }
+            });
+    }
+
+    public long getExecutionTimeoutMs() {
+        return executionTimeoutMs;
+    }
+
+    /**
+     * Rough wait estimate: queued work divided across workers at the average execution time
+     */
+    private long estimateRetryAfterSeconds(int depth) {
+        long done = completed.get();
+        long avgMs = done > 0 ? totalExecutionMs.get() / done : 1000;
+        long waitMs = (depth + 1) * avgMs / executor.getMaximumPoolSize();
+        return Math.max(1, (long) Math.ceil(waitMs / 1000.0));
+    }
+
+    /**
+     * Queue and rejection statistics
+     */
+    public Map<String, Object> getStats() {
+        long submittedCount = submitted.get();
+        long rejectedCount = rejected.get();
+        long done = completed.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("submitted", submittedCount);
+        stats.put("rejected", rejectedCount);
+        stats.put("rejectionRate", submittedCount > 0 ? (double) rejectedCount / submittedCount : 0.0);
+        stats.put("completed", done);
+        stats.put("timedOut", timedOut.get());
+        stats.put("avgExecutionMs", done > 0 ? totalExecutionMs.get() / done : 0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Priority queue that refuses offers beyond its capacity, so ThreadPoolExecutor
+     * rejects the task atomically instead of a separate size check before enqueueing
+     */
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private final int capacity;
+
+        BoundedPriorityQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable task) {
+            return size() < capacity && super.offer(task);
+        }
+    }
+
+    private class PrioritizedTask<T> implements Runnable, Comparable<PrioritizedTask<?>> {
+        private final Supplier<T> work;
+        private final int costClass;
+        private final long seq;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private Thread runner;
+
+        PrioritizedTask(Supplier<T> work, long cost, long seq) {
+            this.work = work;
+            this.costClass = 64 - Long.numberOfLeadingZeros(Math.max(cost, 1));
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (result.isDone()) return; // timed out while queued
+                runner = Thread.currentThread();
+            }
+            long start = System.currentTimeMillis();
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    Thread.interrupted(); // do not leak a late interrupt into the next task
+                }
+                completed.incrementAndGet();
+                totalExecutionMs.addAndGet(System.currentTimeMillis() - start);
+            }
+        }
+
+        synchronized void interrupt() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byCost = Integer.compare(costClass, other.costClass);
+            return byCost != 0 ? byCost : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.ScheduleRequest;
+import com.yeditepe.courseselector.dto.ScheduleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Schedule Generation Service - entry point for /api/schedule/generate
+ * Collects candidate courses from the cache and runs the solver.
+ * Concurrent requests with the same solver input (same canonical key) are coalesced:
+ * only the first one computes, the others share its ScheduleResult.
+ * The solver itself runs behind ScheduleAdmissionService, prioritized by estimated cost;
+ * leader and followers give up together when its execution timeout expires.
+ */
+@Service
+public class ScheduleGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleGenerationService.class);
+
+    private final CourseCacheService cacheService;
+    private final ScheduleService scheduleService;
+    private final ScheduleAdmissionService admissionService;
+
+    private final SingleFlight<String, ScheduleResult> inFlight = new SingleFlight<>();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public ScheduleGenerationService(CourseCacheService cacheService,
+                                     ScheduleService scheduleService,
+                                     ScheduleAdmissionService admissionService) {
+        this.cacheService = cacheService;
+        this.scheduleService = scheduleService;
+        this.admissionService = admissionService;
+    }
+
+    /**
+     * Generate a schedule without blocking the caller
+     * Completes with an unsuccessful ScheduleResult if the solver times out
+     */
+    public CompletableFuture<ScheduleResult> generate(ScheduleRequest request) {
+        String key = canonicalKey(request);
+
+        // The solver gets the caller's request as is; the key only decides who may share a result
+        return inFlight.execute(key, () -> compute(request))
+            .exceptionally(error -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (!(cause instanceof TimeoutException)) {
+                    throw error instanceof CompletionException
+                        ? (CompletionException) error : new CompletionException(cause);
+                }
+                timeouts.incrementAndGet();
+                log.warn("Schedule generation {} timed out after {} ms", key, admissionService.getExecutionTimeoutMs());
+                ScheduleResult result = new ScheduleResult();
+                result.setSuccess(false);
+                result.setMessage("Program oluşturma zaman aşımına uğradı, lütfen tekrar deneyin.");
+                return result;
+            });
+    }
+
+    private CompletableFuture<ScheduleResult> compute(ScheduleRequest request) {
+        // Pin one catalog version for the whole computation, even if a sync publishes a new one meanwhile
+        CatalogSnapshot snapshot = cacheService.getCatalog(request.getSeasonId()).orElse(null);
+        boolean stale = snapshot != null && cacheService.isStale(snapshot);
+        List<Course> courses = collectCourses(snapshot, request);
+        long cost = estimateCost(courses, request);
+        return admissionService.submit(cost, () -> scheduleService.generateSchedule(courses, request))
+            .thenApply(result -> {
+                if (result != null && snapshot != null) {
+                    result.setCatalogVersion(snapshot.getVersion());
+                    result.setCatalogStale(stale);
+                }
+                return result;
+            });
+    }
+
+    /**
+     * Solver cost estimate: size of the search space, i.e. the product of section
+     * counts of the requested courses (saturating). MANUAL mode does no search.
+     */
+    private long estimateCost(List<Course> courses, ScheduleRequest request) {
+        if ("MANUAL".equalsIgnoreCase(request.getMode()) || request.getCourseCodes() == null) {
+            return 1;
+        }
+
+        Set<String> requested = new HashSet<>(request.getCourseCodes());
+        Map<String, Long> sectionCounts = courses.stream()
+            .filter(c -> requested.contains(c.getCode()))
+            .collect(Collectors.groupingBy(Course::getCode, Collectors.counting()));
+
+        long cost = 1;
+        for (long count : sectionCounts.values()) {
+            cost = count > 0 && cost > Long.MAX_VALUE / count ? Long.MAX_VALUE : cost * count;
+        }
+        return cost;
+    }
+
+    private List<Course> collectCourses(CatalogSnapshot snapshot, ScheduleRequest request) {
+        // Check if "all departments" mode
+        if (isAllDepartments(request)) {
+            return snapshot != null ? snapshot.getCourses() : Collections.emptyList();
+        }
+
+        // Primary department first, then additional departments (e.g., MATH, PHYS, ENG)
+        List<Long> departmentIds = new ArrayList<>();
+        departmentIds.add(request.getDepartmentId());
+        if (request.getAdditionalDepartmentIds() != null) {
+            departmentIds.addAll(request.getAdditionalDepartmentIds());
+        }
+        return cacheService.getCourses(snapshot, request.getSeasonId(), departmentIds);
+    }
+
+    /**
+     * Coalescing key: two requests share a key only if the solver gives them the same result.
+     * Fields the solver ignores are normalized (mode case, additional departments in all-departments
+     * mode, the list the other mode uses); course codes, sections and departments keep the caller's
+     * order and duplicates, since the capped backtracking search depends on both.
+     */
+    private String canonicalKey(ScheduleRequest request) {
+        boolean allDepartments = isAllDepartments(request);
+        boolean manual = "MANUAL".equalsIgnoreCase(request.getMode());
+        StringBuilder key = new StringBuilder()
+            .append(request.getSeasonId()).append('|')
+            .append(allDepartments ? null : request.getDepartmentId()).append('|')
+            .append(allDepartments ? null : request.getAdditionalDepartmentIds()).append('|')
+            .append(manual ? "MANUAL" : "AUTO").append('|');
+
+        if (manual) {
+            List<String> sections = request.getSelectedSections() == null ? Collections.emptyList() :
+                request.getSelectedSections().stream()
+                    .map(s -> s == null ? "null" : s.getCode() + ":" + s.getSection())
+                    .collect(Collectors.toList());
+            key.append(sections);
+        } else {
+            key.append(request.getCourseCodes());
+        }
+        return key.toString();
+    }
+
+    private boolean isAllDepartments(ScheduleRequest request) {
+        return request.getDepartmentId() == null || request.getDepartmentId() == 0;
+    }
+
+    /**
+     * Coalescing statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.getInFlightCount());
+        stats.put("computed", inFlight.getLeaderCount());
+        stats.put("coalesced", inFlight.getCoalescedCount());
+        stats.put("timeouts", timeouts.get());
+        return stats;
+    }
+}
@@ -0,0 +1,148 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.ScheduleJob;
+import com.yeditepe.courseselector.dto.ScheduleRequest;
+import com.yeditepe.courseselector.dto.ScheduleResult;
+import com.yeditepe.courseselector.event.ScheduleJobUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous schedule generation
+ * Jobs are accepted immediately and handed to the solver by a small dispatch pool, which only
+ * looks up the catalog and queues the work on ScheduleAdmissionService; no job thread waits
+ * for the solver. Every state change
+ * (QUEUED -> RUNNING -> COMPLETED/FAILED) is published as a ScheduleJobUpdatedEvent
+ * and pushed to subscribers over /ws/schedule-jobs.
+ * Finished jobs stay retrievable by id for a short retention window,
+ * in a store bounded by size (oldest jobs are dropped first).
+ */
+@Service
+public class ScheduleJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleJobService.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final ScheduleGenerationService generationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final long retentionMs;
+    // Jobs handed to the solver and not finished yet
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final Map<String, ScheduleJob> jobs;
+
+    public ScheduleJobService(ScheduleGenerationService generationService,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${schedule.jobs.threads:4}") int threads,
+                              @Value("${schedule.jobs.max-pending:200}") int maxPending,
+                              @Value("${schedule.jobs.max-retained:1000}") int maxRetained,
+                              @Value("${schedule.jobs.retention-ms:600000}") long retentionMs) {
+        this.generationService = generationService;
+        this.eventPublisher = eventPublisher;
+        this.retentionMs = retentionMs;
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxPending),
+            new NamedThreadFactory("schedule-job-dispatch-"));
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, ScheduleJob>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ScheduleJob> eldest) {
+                return size() > maxRetained;
+            }
+        });
+    }
+
+    /**
+     * Accept a job and return immediately with its id
+     */
+    public ScheduleJob submit(ScheduleRequest request) {
+        String jobId = UUID.randomUUID().toString();
+        ScheduleJob job = new ScheduleJob(jobId, QUEUED, null, null, System.currentTimeMillis(), null);
+        update(job);
+
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            throw new ScheduleOverloadException(
+                "Sunucu şu anda yoğun, lütfen birkaç saniye sonra tekrar deneyin.", 5);
+        }
+        return job;
+    }
+
+    public Optional<ScheduleJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(ScheduleJob queued, ScheduleRequest request) {
+        update(copy(queued, RUNNING, null, null));
+        running.incrementAndGet();
+        CompletableFuture<ScheduleResult> generation;
+        try {
+            generation = generationService.generate(request);
+        } catch (RuntimeException e) {
+            generation = CompletableFuture.failedFuture(e);
+        }
+        // Completes on the solver's thread; this dispatch thread is free for the next job
+        generation.whenComplete((result, error) -> {
+            running.decrementAndGet();
+            if (error == null) {
+                update(copy(queued, COMPLETED, result.getMessage(), result));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.warn("Schedule job {} failed: {}", queued.getJobId(), cause.getMessage());
+            update(copy(queued, FAILED, cause.getMessage(), null));
+        });
+    }
+
+    private ScheduleJob copy(ScheduleJob job, String status, String message, ScheduleResult result) {
+        boolean finished = COMPLETED.equals(status) || FAILED.equals(status);
+        return new ScheduleJob(job.getJobId(), status, message, result, job.getCreatedAt(),
+            finished ? System.currentTimeMillis() : null);
+    }
+
+    private void update(ScheduleJob job) {
+        jobs.put(job.getJobId(), job);
+        eventPublisher.publishEvent(new ScheduleJobUpdatedEvent(job));
+    }
+
+    /**
+     * Drop finished jobs older than the retention window
+     */
+    @Scheduled(fixedDelayString = "${schedule.jobs.cleanup-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        synchronized (jobs) {
+            jobs.values().removeIf(job -> job.getCompletedAt() != null && job.getCompletedAt() < cutoff);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("retainedJobs", jobs.size());
+        stats.put("pendingJobs", executor.getQueue().size());
+        stats.put("runningJobs", running.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package com.yeditepe.courseselector.service;
+
+/**
+ * Thrown when the schedule generator queue is full
+ * Mapped to 429 Too Many Requests with a Retry-After header
+ */
+public class ScheduleOverloadException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ScheduleOverloadException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
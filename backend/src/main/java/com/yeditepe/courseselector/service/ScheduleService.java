@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 @Service
@@ -225,6 +226,7 @@ public class ScheduleService {
         
         // Try each section for this course
         for (Course section : sections) {
+            checkInterrupted();
             List<TimeSlot> sectionSlots = getTimeSlotsWithCode(section);
             
             // Calculate overlap with current schedule
@@ -248,6 +250,15 @@ public class ScheduleService {
         }
     }
     
+    /**
+     * Stop the search once the admission executor gave up on this generation (timeout)
+     */
+    private void checkInterrupted() {
+        if (Thread.interrupted()) {
+            throw new CancellationException("Schedule generation cancelled");
+        }
+    }
+    
     /**
      * Çakışma miktarını hesaplar
      */
@@ -349,6 +360,7 @@ public class ScheduleService {
             OverlapInfo bestOverlap = null;
             
             for (Course section : sections) {
+                checkInterrupted();
                 List<TimeSlot> sectionSlots = getTimeSlotsWithCode(section);
                 
                 // Calculate overlap with current schedule
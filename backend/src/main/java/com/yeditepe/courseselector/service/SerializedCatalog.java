@@ -0,0 +1,43 @@
+package com.yeditepe.courseselector.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable catalog list together with its JSON encoding
+ * Serialized once when the catalog version is published, so hot endpoints
+ * write the same bytes on every request instead of re-encoding the list
+ */
+public final class SerializedCatalog<T> {
+
+    private final List<T> items;
+    private final CatalogBody body;
+    private final long version;
+    private final long lastModified;
+
+    public SerializedCatalog(List<T> items, CatalogBody body, long version, long lastModified) {
+        this.items = Collections.unmodifiableList(items);
+        this.body = body;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public CatalogBody getBody() {
+        return body;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Latest sync time of the listed rows (epoch millis)
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,61 @@
+package com.yeditepe.courseselector.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight call de-duplication
+ * The first caller for a key (leader) starts the work, concurrent callers with the
+ * same key (followers) get the leader's result instead of recomputing it.
+ * Nobody blocks: all callers receive a future of the shared result.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Start work for key, or join an identical in-flight call
+     * Followers get a copy of the shared future, so cancelling one caller does not affect the others
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> work) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.copy();
+        }
+
+        leaders.incrementAndGet();
+        mine.whenComplete((value, error) -> inFlight.remove(key, mine));
+        try {
+            work.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+        }
+        return mine.copy();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getLeaderCount() {
+        return leaders.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical instances of the repeated strings of one catalog build
+ * A season repeats the same day codes, meeting types, hours, buildings, instructors and
+ * department names thousands of times, and every section repeats its course's code and names.
+ * Keeping one instance per distinct value shrinks the snapshot. The dictionary lives only
+ * for one build (unlike String.intern()), so the values of old catalog versions can be collected.
+ * Not thread-safe: use one dictionary per build.
+ */
+public final class StringDictionary {
+
+    private final Map<String, String> values = new HashMap<>();
+    private long lookups;
+    private long hits;
+
+    public String canonical(String value) {
+        if (value == null) return null;
+        lookups++;
+        String existing = values.putIfAbsent(value, value);
+        if (existing == null) return value;
+        hits++;
+        return existing;
+    }
+
+    /**
+     * Replace the low-cardinality fields of the given courses (and their meetings) in place
+     * Free text (info, full names) is left alone, it rarely repeats.
+     */
+    public List<Course> canonicalize(List<Course> courses) {
+        for (Course course : courses) {
+            course.setCode(canonical(course.getCode()));
+            course.setName(canonical(course.getName()));
+            course.setNameEn(canonical(course.getNameEn()));
+            course.setNameTr(canonical(course.getNameTr()));
+            course.setInstructor(canonical(course.getInstructor()));
+            course.setDepartmentName(canonical(course.getDepartmentName()));
+            if (course.getDetails() == null) continue;
+            for (CourseDetail detail : course.getDetails()) {
+                canonicalize(detail);
+            }
+        }
+        return courses;
+    }
+
+    public CourseDetail canonicalize(CourseDetail detail) {
+        detail.setType(canonical(detail.getType()));
+        detail.setTypeShort(canonical(detail.getTypeShort()));
+        detail.setDay(canonical(detail.getDay()));
+        detail.setStartHour(canonical(detail.getStartHour()));
+        detail.setEndHour(canonical(detail.getEndHour()));
+        detail.setRoomFloor(canonical(detail.getRoomFloor()));
+        detail.setRoomName(canonical(detail.getRoomName()));
+        detail.setNameShort(canonical(detail.getNameShort()));
+        return detail;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Distinct values, lookups and the share of lookups answered with an existing instance
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("distinct", values.size());
+        stats.put("lookups", lookups);
+        stats.put("hits", hits);
+        stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        return stats;
+    }
+}
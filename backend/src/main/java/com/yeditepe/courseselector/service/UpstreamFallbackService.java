@@ -0,0 +1,127 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.config.CacheProperties;
+import com.yeditepe.courseselector.dto.AcademicSeason;
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.Department;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Upstream API fallback for catalog data the database does not have
+ * Department course lists (mostly empty) are kept briefly per season/department, concurrent misses
+ * share one call, and a circuit breaker stops calls while the upstream is failing (one probe call
+ * after cache.fallback.breaker.open-ms). Cached results are still served while the circuit is open;
+ * otherwise an open circuit or a failed call raises CatalogUnavailableException instead of an empty list.
+ */
+@Service
+public class UpstreamFallbackService {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamFallbackService.class);
+    private static final String UNAVAILABLE_MESSAGE =
+        "Ders bilgileri şu anda Yeditepe sisteminden alınamıyor, lütfen birazdan tekrar deneyin.";
+
+    private final YeditepeApiService yeditepeApiService;
+    private final Cache<String, List<Course>> courseCache;
+    private final CircuitBreaker breaker;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public UpstreamFallbackService(YeditepeApiService yeditepeApiService,
+                                   CacheProperties properties) {
+        CacheProperties.Fallback fallback = properties.getFallback();
+        this.yeditepeApiService = yeditepeApiService;
+        this.breaker = new CircuitBreaker("upstream", fallback.getBreaker().getFailureThreshold(),
+            fallback.getBreaker().getOpenMs());
+        this.courseCache = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMillis(fallback.getTtlMs()))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Courses of a department from the upstream API, cached for cache.fallback.ttl-ms,
+     * so a missing department costs one upstream call per TTL instead of one per request
+     */
+    public List<Course> getCourses(Long seasonId, Long departmentId) {
+        String key = seasonId + ":" + departmentId;
+        List<Course> cached = courseCache.getIfPresent(key);
+        if (cached != null) return cached;
+        if (!breaker.allowRequest()) throw unavailable();
+
+        log.warn("No courses found in database for season {} dept {}, falling back to API", seasonId, departmentId);
+        try {
+            return courseCache.get(key, k -> {
+                calls.incrementAndGet();
+                List<Course> courses = yeditepeApiService.getCourses(seasonId, departmentId);
+                breaker.recordSuccess();
+                return Collections.unmodifiableList(courses);
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            breaker.recordFailure();
+            log.error("API fallback failed for season {} dept {}: {}", seasonId, departmentId, e.getMessage());
+            throw unavailable();
+        }
+    }
+
+    public List<AcademicSeason> getSeasons() {
+        return call(yeditepeApiService::getAcademicSeasons, "seasons");
+    }
+
+    public List<Department> getDepartments() {
+        return call(yeditepeApiService::getDepartments, "departments");
+    }
+
+    /**
+     * Forget cached department lists, e.g. after a sync may have added the departments
+     */
+    public void invalidateAll() {
+        courseCache.invalidateAll();
+    }
+
+    private <T> List<T> call(Supplier<List<T>> call, String what) {
+        if (!breaker.allowRequest()) throw unavailable();
+        try {
+            calls.incrementAndGet();
+            List<T> result = call.get();
+            breaker.recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            breaker.recordFailure();
+            log.error("API fallback for {} failed: {}", what, e.getMessage());
+            throw unavailable();
+        }
+    }
+
+    private CatalogUnavailableException unavailable() {
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(breaker.getRetryAfterMs() / 1000.0));
+        return new CatalogUnavailableException(UNAVAILABLE_MESSAGE, retryAfterSeconds);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats cacheStats = courseCache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("failures", failures.get());
+        stats.put("cachedHits", cacheStats.hitCount());
+        stats.put("cachedEntries", courseCache.estimatedSize());
+        stats.put("emptyEntries", courseCache.asMap().values().stream().filter(List::isEmpty).count());
+        stats.put("circuit", breaker.getStats());
+        return stats;
+    }
+}
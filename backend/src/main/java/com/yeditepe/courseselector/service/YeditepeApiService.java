@@ -5,6 +5,7 @@ import com.yeditepe.courseselector.dto.Course;
 import com.yeditepe.courseselector.dto.Department;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -20,7 +21,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,13 +32,20 @@ public class YeditepeApiService {
     private final RestTemplate restTemplate;
     private final AuthService authService;
     private final String baseUrl;
+    private final ExecutorService upstreamExecutor;
+    private final Semaphore fetchPermits;
 
     public YeditepeApiService(RestTemplate restTemplate, 
                               AuthService authService,
-                              @Value("${yeditepe.api.base-url}") String baseUrl) {
+                              @Value("${yeditepe.api.base-url}") String baseUrl,
+                              @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor,
+                              @Value("${yeditepe.api.fetch-threads:10}") int maxConcurrentFetches) {
         this.restTemplate = restTemplate;
         this.authService = authService;
         this.baseUrl = baseUrl;
+        this.upstreamExecutor = upstreamExecutor;
+        // Virtual threads are unbounded, so cap concurrent upstream calls explicitly
+        this.fetchPermits = new Semaphore(maxConcurrentFetches);
     }
 
     public List<AcademicSeason> getAcademicSeasons() {
@@ -64,7 +72,10 @@ public class YeditepeApiService {
                 entity,
                 new ParameterizedTypeReference<List<Course>>() {}
             );
-            return response.getBody() != null ? response.getBody() : Collections.emptyList();
+            // Every section arrives with its own copies of day codes, types, rooms and names
+            return response.getBody() != null
+                ? new StringDictionary().canonicalize(response.getBody())
+                : Collections.<Course>emptyList();
         }, "courses");
     }
 
@@ -75,31 +86,31 @@ public class YeditepeApiService {
         List<Department> departments = getDepartments();
         log.info("Found {} departments, fetching courses in parallel...", departments.size());
         
-        // Fetch courses from all departments in parallel
-        ExecutorService executor = Executors.newFixedThreadPool(10);
-        try {
-            List<CompletableFuture<List<Course>>> futures = departments.stream()
-                .map(dept -> CompletableFuture.supplyAsync(() -> {
+        // Fetch courses from all departments in parallel (shared upstream pool, virtual threads on Java 21)
+        List<CompletableFuture<List<Course>>> futures = departments.stream()
+            .map(dept -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    fetchPermits.acquire();
                     try {
                         return getCourses(seasonId, dept.getId());
-                    } catch (Exception e) {
-                        log.warn("Failed to fetch courses for department {}: {}", dept.getName(), e.getMessage());
-                        return Collections.<Course>emptyList();
+                    } finally {
+                        fetchPermits.release();
                     }
-                }, executor))
-                .collect(Collectors.toList());
-            
-            // Wait for all futures and combine results
-            List<Course> allCourses = futures.stream()
-                .map(CompletableFuture::join)
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
-            
-            log.info("Fetched {} total courses from all departments", allCourses.size());
-            return allCourses;
-        } finally {
-            executor.shutdown();
-        }
+                } catch (Exception e) {
+                    log.warn("Failed to fetch courses for department {}: {}", dept.getName(), e.getMessage());
+                    return Collections.<Course>emptyList();
+                }
+            }, upstreamExecutor))
+            .collect(Collectors.toList());
+        
+        // Wait for all futures and combine results
+        List<Course> allCourses = futures.stream()
+            .map(CompletableFuture::join)
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+        
+        log.info("Fetched {} total courses from all departments", allCourses.size());
+        return allCourses;
     }
 
     public List<Department> getDepartments() {
@@ -0,0 +1,121 @@
+package com.yeditepe.courseselector.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeditepe.courseselector.dto.ScheduleJob;
+import com.yeditepe.courseselector.event.ScheduleJobUpdatedEvent;
+import com.yeditepe.courseselector.service.ScheduleJobService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes async schedule job progress and results to subscribed clients
+ * Client sends {"type":"subscribe","jobId":"..."} after POST /api/schedule/generate?async=true
+ */
+@Component
+public class ScheduleJobWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    private final ScheduleJobService jobService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // jobId -> subscribed sessions
+    private final Map<String, Set<WebSocketSession>> subscriptions = new ConcurrentHashMap<>();
+    // raw session id -> thread-safe decorated session (jobs complete on worker threads)
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    public ScheduleJobWebSocketHandler(ScheduleJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        sessions.put(session.getId(),
+            new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        WebSocketSession decorated = sessions.remove(session.getId());
+        if (decorated != null) {
+            subscriptions.values().forEach(subscribers -> subscribers.remove(decorated));
+            subscriptions.values().removeIf(Set::isEmpty);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        WebSocketSession decorated = sessions.get(session.getId());
+        if (decorated == null) return;
+
+        // Handle ping messages to keep connection alive
+        if ("ping".equals(message.getPayload())) {
+            decorated.sendMessage(new TextMessage("pong"));
+            return;
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            return; // Ignore malformed messages
+        }
+        if (!"subscribe".equals(node.path("type").asText()) || !node.hasNonNull("jobId")) {
+            return;
+        }
+
+        String jobId = node.get("jobId").asText();
+        subscriptions.computeIfAbsent(jobId, k -> ConcurrentHashMap.newKeySet()).add(decorated);
+
+        // Job may already be finished before the client subscribed
+        jobService.getJob(jobId).ifPresent(job -> {
+            send(decorated, job);
+            if (isFinished(job)) {
+                subscriptions.remove(jobId);
+            }
+        });
+    }
+
+    @EventListener
+    public void onJobUpdated(ScheduleJobUpdatedEvent event) {
+        ScheduleJob job = event.getJob();
+        Set<WebSocketSession> subscribers = subscriptions.get(job.getJobId());
+        if (subscribers == null) return;
+
+        for (WebSocketSession session : subscribers) {
+            send(session, job);
+        }
+
+        if (isFinished(job)) {
+            subscriptions.remove(job.getJobId());
+        }
+    }
+
+    private boolean isFinished(ScheduleJob job) {
+        return ScheduleJobService.COMPLETED.equals(job.getStatus())
+            || ScheduleJobService.FAILED.equals(job.getStatus());
+    }
+
+    private void send(WebSocketSession session, ScheduleJob job) {
+        if (!session.isOpen()) return;
+        try {
+            String json = objectMapper.writeValueAsString(Map.of("type", "scheduleJob", "job", job));
+            session.sendMessage(new TextMessage(json));
+        } catch (IOException e) {
+            // Session might be closed, ignore
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.yeditepe.courseselector.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ThreadingConfigTest {
+
+    @Test
+    void virtualThreadSwitchFallsBackToPlatformThreadsBeforeJava21() throws Exception {
+        assumeFalse(ThreadingConfig.virtualThreadsSupported(), "JVM has virtual threads");
+
+        ExecutorService executor = new ThreadingConfig().upstreamExecutor(true, 3);
+        try {
+            assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+            assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize()).isEqualTo(3);
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertThat(threadName).startsWith("upstream-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void platformThreadsByDefault() {
+        ExecutorService executor = new ThreadingConfig().upstreamExecutor(false, 2);
+        try {
+            assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
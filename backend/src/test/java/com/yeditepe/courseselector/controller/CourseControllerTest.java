@@ -0,0 +1,299 @@
+package com.yeditepe.courseselector.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeditepe.courseselector.dto.AcademicSeason;
+import com.yeditepe.courseselector.dto.CatalogDelta;
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.Department;
+import com.yeditepe.courseselector.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CourseControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CourseCacheService cacheService = mock(CourseCacheService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        CourseController controller = new CourseController(cacheService, mock(CatalogCoherenceService.class),
+            mock(ScheduleGenerationService.class), mock(ScheduleAdmissionService.class),
+            mock(ScheduleJobService.class), mock(YeditepeApiService.class),
+            mock(ApplicationAvailability.class), 300);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void sameContentKeepsItsEtagAcrossVersions() throws Exception {
+        serve(snapshot(7, "Ada"));
+        String etag = fetchEtag();
+
+        // Another instance, or this one after a restart, rebuilt identical content under another version
+        serve(snapshot(1, "Ada"));
+        assertThat(fetchEtag()).isEqualTo(etag);
+        mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void changedContentUnderTheSameVersionIsNotAnsweredWith304() throws Exception {
+        serve(snapshot(7, "Ada"));
+        String etag = fetchEtag();
+
+        serve(snapshot(7, "Grace"));
+        mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void gzipVariantHasItsOwnEtag() throws Exception {
+        serve(snapshot(7, "Ada"));
+        String plain = fetchEtag();
+        String gzip = mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(gzip).isNotEqualTo(plain).endsWith("-gzip\"");
+    }
+
+    @Test
+    void fallbackSnapshotIsMarkedStaleOnEveryCourseEndpoint() throws Exception {
+        CatalogSnapshot snapshot = snapshot(7, "Ada");
+        serve(snapshot);
+        when(cacheService.isStale(snapshot)).thenReturn(true);
+
+        mockMvc.perform(get("/api/courses/1/all"))
+            .andExpect(header().string(CourseController.CATALOG_STALE_HEADER, "true"));
+        mockMvc.perform(get("/api/courses/1/search").param("q", "CSE"))
+            .andExpect(header().string(CourseController.CATALOG_STALE_HEADER, "true"));
+
+        when(cacheService.isStale(snapshot)).thenReturn(false);
+        mockMvc.perform(get("/api/courses/1/all"))
+            .andExpect(header().doesNotExist(CourseController.CATALOG_STALE_HEADER));
+    }
+
+    @Test
+    void changesAnswer410UnlessTheEpochAndVersionAreKnown() throws Exception {
+        when(cacheService.getCatalogEpoch()).thenReturn("e1");
+        when(cacheService.getChangesSince(1L, "e1", 3)).thenReturn(Optional.of(new CatalogDelta(1L, 3, 4,
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyList())));
+        when(cacheService.getChangesSince(1L, "e0", 3)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/courses/1/changes").param("since", "3").param("epoch", "e1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CourseController.CATALOG_VERSION_HEADER, "4"))
+            .andExpect(header().string(CourseController.CATALOG_EPOCH_HEADER, "e1"));
+        mockMvc.perform(get("/api/courses/1/changes").param("since", "3").param("epoch", "e0"))
+            .andExpect(status().isGone());
+    }
+
+    @Test
+    void unavailableUpstreamFallbackAnswers503WithRetryAfter() throws Exception {
+        serve(snapshot(7, "Ada"));
+        when(cacheService.getCourses(any(), eq(1L), eq(99L)))
+            .thenThrow(new CatalogUnavailableException("down", 12));
+
+        mockMvc.perform(get("/api/courses/1/99"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "12"));
+    }
+
+    @Test
+    void apiFallbackForAMissingDepartmentIsMarkedStale() throws Exception {
+        serve(snapshot(7, "Ada"));
+        when(cacheService.getCourses(any(), eq(1L), eq(99L))).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/courses/1/99"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CourseController.CATALOG_STALE_HEADER, "true"));
+        mockMvc.perform(get("/api/courses/1/10"))
+            .andExpect(header().doesNotExist(CourseController.CATALOG_STALE_HEADER));
+    }
+
+    @Test
+    void catalogThatCannotBeLoadedAnswers503InsteadOfAnEmptyList() throws Exception {
+        when(cacheService.requireCatalog(2L)).thenThrow(new CatalogUnavailableException("down", 10));
+        when(cacheService.requireCatalog(3L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/courses/2/all"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        mockMvc.perform(get("/api/courses/2/search").param("q", "CSE"))
+            .andExpect(status().isServiceUnavailable());
+        // A season without courses
+        mockMvc.perform(get("/api/courses/3/all"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void seasonsAndDepartmentsAreServedFromTheirSerializedCatalogs() throws Exception {
+        AcademicSeason season = new AcademicSeason();
+        season.setId(1L);
+        season.setName("2024-2025 Fall");
+        Department department = new Department();
+        department.setId(10L);
+        department.setName("Computer Engineering");
+        byte[] seasonsJson = objectMapper.writeValueAsBytes(List.of(season));
+        byte[] departmentsJson = objectMapper.writeValueAsBytes(List.of(department));
+        when(cacheService.getSeasonsCatalog()).thenReturn(Optional.of(
+            new SerializedCatalog<>(List.of(season), CatalogBody.of(seasonsJson), 3, 1_700_000_000_000L)));
+        when(cacheService.getDepartmentsCatalog()).thenReturn(Optional.of(
+            new SerializedCatalog<>(List.of(department), CatalogBody.of(departmentsJson), 4, 1_700_000_000_000L)));
+
+        String etag = mockMvc.perform(get("/api/seasons"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CourseController.CATALOG_VERSION_HEADER, "3"))
+            .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+            .andExpect(header().doesNotExist(CourseController.CATALOG_STALE_HEADER))
+            .andExpect(content().bytes(seasonsJson))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/seasons").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/departments"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CourseController.CATALOG_VERSION_HEADER, "4"))
+            .andExpect(content().bytes(departmentsJson));
+
+        // Served from memory while the database is down
+        when(cacheService.isDegraded()).thenReturn(true);
+        mockMvc.perform(get("/api/departments"))
+            .andExpect(header().string(CourseController.CATALOG_STALE_HEADER, "true"));
+    }
+
+    @Test
+    void seasonsWithoutACatalogComeFromTheFallbackList() throws Exception {
+        AcademicSeason season = new AcademicSeason();
+        season.setId(1L);
+        season.setName("2024-2025 Fall");
+        when(cacheService.getSeasonsCatalog()).thenReturn(Optional.empty());
+        when(cacheService.getSeasons()).thenReturn(List.of(season));
+
+        mockMvc.perform(get("/api/seasons"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(CourseController.CATALOG_VERSION_HEADER))
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andExpect(jsonPath("$[0].name").value("2024-2025 Fall"));
+    }
+
+    @Test
+    void preSerializedBodiesAreByteIdenticalToJackson() throws Exception {
+        List<Course> courses = new ArrayList<>(snapshot(7, "Ada").getCourses());
+        for (int i = 0; i < 30; i++) {
+            Course course = new Course();
+            course.setCode("MATH" + (100 + i));
+            course.setSection(i % 3 + 1);
+            course.setName("Çalışma " + i + " \"quoted\"");
+            course.setDepartmentId(i % 2 == 0 ? 20L : 5L);
+            course.setCredit(i % 4);
+            courses.add(i * 2, course);
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1L, 7, 1_700_000_000_000L, courses, objectMapper);
+        serve(snapshot);
+
+        byte[] all = objectMapper.writeValueAsBytes(snapshot.getCourses());
+        mockMvc.perform(get("/api/courses/1/all")).andExpect(content().bytes(all));
+        byte[] gzip = mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(all);
+        }
+
+        // Department bodies are slices of the same encoding
+        for (long departmentId : new long[] {5L, 10L, 20L}) {
+            mockMvc.perform(get("/api/courses/1/" + departmentId))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(snapshot.getDepartment(departmentId))));
+        }
+        assertThat(CatalogSnapshot.of(1L, 1, 0, List.of(), objectMapper).getBody().getJson())
+            .isEqualTo(objectMapper.writeValueAsBytes(List.of()));
+    }
+
+    @Test
+    void acceptsGzipHonoursQualityValues() {
+        assertThat(CourseController.acceptsGzip(null)).isFalse();
+        assertThat(CourseController.acceptsGzip("")).isFalse();
+        assertThat(CourseController.acceptsGzip("identity")).isFalse();
+        assertThat(CourseController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CourseController.acceptsGzip("gzip; q=0.000, br")).isFalse();
+        assertThat(CourseController.acceptsGzip("*;q=0")).isFalse();
+
+        assertThat(CourseController.acceptsGzip("gzip")).isTrue();
+        assertThat(CourseController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(CourseController.acceptsGzip("gzip;q=0.01")).isTrue();
+        assertThat(CourseController.acceptsGzip("br, *")).isTrue();
+    }
+
+    @Test
+    void plainBodyUnlessGzipIsAcceptedAndAlwaysVaryOnAcceptEncoding() throws Exception {
+        CatalogSnapshot snapshot = snapshot(7, "Ada");
+        serve(snapshot);
+
+        mockMvc.perform(get("/api/courses/1/all"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(content().bytes(snapshot.getBody().getJson()));
+        mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(content().bytes(snapshot.getBody().getJson()));
+        mockMvc.perform(get("/api/courses/1/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(content().bytes(snapshot.getBody().getGzip()));
+    }
+
+    private String fetchEtag() throws Exception {
+        return mockMvc.perform(get("/api/courses/1/all"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void serve(CatalogSnapshot snapshot) {
+        when(cacheService.getCatalog(1L)).thenReturn(Optional.of(snapshot));
+        when(cacheService.requireCatalog(1L)).thenReturn(Optional.of(snapshot));
+    }
+
+    private CatalogSnapshot snapshot(long version, String instructor) throws Exception {
+        // Large enough for a gzip variant
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Course course = new Course();
+            course.setCode("CSE" + (100 + i));
+            course.setSection(1);
+            course.setName("Course " + i);
+            course.setDepartmentId(10L);
+            course.setInstructor(instructor);
+            courses.add(course);
+        }
+        return CatalogSnapshot.of(1L, version, 1_700_000_000_000L, courses, objectMapper);
+    }
+}
@@ -0,0 +1,86 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.CourseSelectorApplication;
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import com.yeditepe.courseselector.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances sharing one database: a sync committed by one must reach the other's cache
+ */
+class CatalogCoherenceTest {
+
+    private static final long SEASON = CourseCacheServiceTest.course(null, "CSE101", "Ada").getSeasonId();
+
+    private ConfigurableApplicationContext syncing;
+    private ConfigurableApplicationContext serving;
+
+    @BeforeEach
+    void setUp() {
+        syncing = start();
+        serving = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (serving != null) serving.close();
+        if (syncing != null) syncing.close();
+    }
+
+    @Test
+    void syncCommittedOnOneInstanceIsServedByTheOther() {
+        CourseRepository courses = syncing.getBean(CourseRepository.class);
+        CatalogVersionService versions = syncing.getBean(CatalogVersionService.class);
+        TransactionTemplate transaction = new TransactionTemplate(syncing.getBean(PlatformTransactionManager.class));
+        // Created before the sync transaction, as DataSyncService does
+        versions.ensureExists(CatalogVersion.courses(SEASON));
+        transaction.executeWithoutResult(status -> {
+            courses.save(CourseCacheServiceTest.course(null, "CSE101", "Ada"));
+            versions.bump(CatalogVersion.courses(SEASON));
+        });
+
+        CourseCacheService servingCache = serving.getBean(CourseCacheService.class);
+        CatalogCoherenceService servingCoherence = serving.getBean(CatalogCoherenceService.class);
+        servingCoherence.pollCatalogVersions();
+        assertThat(instructorServedBy(servingCache)).isEqualTo("Ada");
+
+        // Next sync on the other instance: new data and version bump in one transaction
+        transaction.executeWithoutResult(status -> {
+            com.yeditepe.courseselector.entity.Course course = courses.findBySeasonIdWithSections(SEASON).get(0);
+            course.setInstructor("Grace");
+            courses.save(course);
+            versions.bump(CatalogVersion.courses(SEASON));
+        });
+        assertThat(instructorServedBy(servingCache)).isEqualTo("Ada");
+
+        servingCoherence.pollCatalogVersions();
+        assertThat(instructorServedBy(servingCache)).isEqualTo("Grace");
+    }
+
+    private static String instructorServedBy(CourseCacheService cache) {
+        return cache.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor();
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // Command-line arguments, so they win over the environment-backed defaults in application.properties
+        return new SpringApplicationBuilder(CourseSelectorApplication.class).run(
+            "--spring.datasource.url=jdbc:h2:mem:coherence;MODE=MySQL;NON_KEYWORDS=DAY,TYPE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--server.port=0",
+            "--cache.warmup.enabled=false",
+            "--cache.snapshot.enabled=false",
+            "--cache.coherence.poll-ms=3600000",
+            "--data.sync.cron=-");
+    }
+}
@@ -0,0 +1,76 @@
+package com.yeditepe.courseselector.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalogversions;MODE=MySQL;NON_KEYWORDS=DAY,TYPE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CatalogVersionService.class)
+class CatalogVersionServiceTest {
+
+    private static final String SCOPE = "courses:1";
+
+    @Autowired
+    private CatalogVersionService catalogVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM catalog_versions");
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void rowIsCreatedOnceBeforeTheSyncTransactionBumpsIt() {
+        catalogVersions.ensureExists(SCOPE);
+        catalogVersions.ensureExists(SCOPE);
+        assertThat(catalogVersions.current(SCOPE)).isZero();
+
+        transaction.executeWithoutResult(status -> catalogVersions.bump(SCOPE));
+        transaction.executeWithoutResult(status -> catalogVersions.bump(SCOPE));
+        assertThat(catalogVersions.current(SCOPE)).isEqualTo(2);
+    }
+
+    @Test
+    void rowIsNeverCreatedInsideTheSyncTransaction() {
+        // On InnoDB that insert would wait on the gap lock of the sync's own zero-row update
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> catalogVersions.ensureExists(SCOPE)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> catalogVersions.bump(SCOPE)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(catalogVersions.current(SCOPE)).isZero();
+    }
+
+    @Test
+    void bumpNeedsTheCallersTransaction() {
+        catalogVersions.ensureExists(SCOPE);
+        assertThatThrownBy(() -> catalogVersions.bump(SCOPE)).isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
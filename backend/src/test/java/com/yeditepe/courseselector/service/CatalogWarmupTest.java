@@ -0,0 +1,47 @@
+package com.yeditepe.courseselector.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CatalogWarmupTest {
+
+    private final CourseCacheService cacheService = mock(CourseCacheService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    @Test
+    void refusesTrafficWhileRestoringAndLoadingTheActiveSeason() {
+        when(cacheService.warmUp()).thenReturn(true);
+
+        new CatalogWarmup(cacheService, eventPublisher, true).run(new DefaultApplicationArguments());
+
+        InOrder order = inOrder(eventPublisher, cacheService);
+        ArgumentCaptor<AvailabilityChangeEvent<?>> event = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        order.verify(eventPublisher).publishEvent(event.capture());
+        order.verify(cacheService).restoreFromDisk();
+        order.verify(cacheService).warmUp();
+        assertThat(event.getValue().getState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    @Test
+    void coldCacheDoesNotFailStartup() {
+        when(cacheService.warmUp()).thenReturn(false);
+
+        new CatalogWarmup(cacheService, eventPublisher, true).run(new DefaultApplicationArguments());
+        verify(cacheService).warmUp();
+    }
+
+    @Test
+    void disabledWarmupLeavesTheCacheAlone() {
+        new CatalogWarmup(cacheService, eventPublisher, false).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(cacheService, eventPublisher);
+    }
+}
@@ -0,0 +1,54 @@
+package com.yeditepe.courseselector.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresThenProbesOnceAndCloses() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("upstream", 2, 50);
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.getRetryAfterMs()).isBetween(1L, 50L);
+
+        Thread.sleep(60);
+        // One probe call after the open duration, everyone else is still rejected
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getRetryAfterMs()).isZero();
+    }
+
+    @Test
+    void failedProbeOpensTheCircuitAgain() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("upstream", 1, 50);
+        breaker.recordFailure();
+        Thread.sleep(60);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.getStats()).containsEntry("opened", 2L);
+    }
+
+    @Test
+    void withoutOpenDurationOnlyAHealthCheckClosesIt() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("database", 1, 0);
+        breaker.recordFailure();
+        Thread.sleep(20);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.isClosed()).isTrue();
+    }
+}
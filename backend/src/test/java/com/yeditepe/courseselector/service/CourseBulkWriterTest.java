@@ -0,0 +1,120 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bulkwriter;MODE=MySQL;NON_KEYWORDS=DAY,TYPE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "data.sync.batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CourseBulkWriter.class)
+class CourseBulkWriterTest {
+
+    private static final long SEASON = 1L;
+    private static final long DEPARTMENT = 10L;
+
+    @Autowired
+    private CourseBulkWriter writer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertsNewCoursesWithTheirMeetings() {
+        CourseBulkWriter.Result result = writer.write(SEASON, DEPARTMENT, List.of(
+            course("CSE101", 1, "Ada", meeting("MON", "09:00")),
+            course("CSE101", 2, "Grace", meeting("TUE", "09:00")),
+            course("CSE102", 1, "Alan", meeting("WED", "13:00"), meeting("FRI", "13:00"))));
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(count("SELECT COUNT(*) FROM courses")).isEqualTo(3);
+        assertThat(meetingsOf("CSE102", 1)).containsExactly("WED 13:00", "FRI 13:00");
+    }
+
+    @Test
+    void unchangedCoursesAreNotWritten() {
+        List<Course> courses = List.of(
+            course("CSE101", 1, "Ada", meeting("MON", "09:00")),
+            course("CSE102", 1, "Alan", meeting("WED", "13:00")));
+        writer.write(SEASON, DEPARTMENT, courses);
+
+        CourseBulkWriter.Result result = writer.write(SEASON, DEPARTMENT, courses);
+
+        assertThat(result.getUnchanged()).isEqualTo(2);
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getUpdated()).isZero();
+        // Only the two reads (courses, meetings)
+        assertThat(result.getStatements()).isEqualTo(2);
+    }
+
+    @Test
+    void changedFieldsAndMeetingsAreUpdatedInPlace() {
+        writer.write(SEASON, DEPARTMENT, List.of(
+            course("CSE101", 1, "Ada", meeting("MON", "09:00")),
+            course("CSE102", 1, "Alan", meeting("WED", "13:00")),
+            course("CSE103", 1, "Barbara", meeting("THU", "11:00"))));
+        long id = count("SELECT id FROM courses WHERE code = 'CSE102'");
+
+        CourseBulkWriter.Result result = writer.write(SEASON, DEPARTMENT, List.of(
+            course("CSE101", 1, "Grace", meeting("MON", "09:00")),
+            course("CSE102", 1, "Alan", meeting("WED", "15:00")),
+            // No meetings from upstream: the stored ones are kept
+            course("CSE103", 1, "Barbara")));
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT instructor FROM courses WHERE code = 'CSE101'", String.class))
+            .isEqualTo("Grace");
+        assertThat(count("SELECT id FROM courses WHERE code = 'CSE102'")).isEqualTo(id);
+        assertThat(meetingsOf("CSE102", 1)).containsExactly("WED 15:00");
+        assertThat(meetingsOf("CSE103", 1)).containsExactly("THU 11:00");
+        assertThat(count("SELECT COUNT(*) FROM course_sections")).isEqualTo(3);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private List<String> meetingsOf(String code, int section) {
+        return jdbcTemplate.queryForList("SELECT s.day || ' ' || s.start_time FROM course_sections s "
+            + "JOIN courses c ON c.id = s.course_id WHERE c.code = ? AND c.section_number = ? ORDER BY s.id",
+            String.class, code, section);
+    }
+
+    private static Course course(String code, int section, String instructor, CourseDetail... meetings) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setSection(section);
+        course.setName(code);
+        course.setCredit(3);
+        course.setInstructor(instructor);
+        course.setDepartmentName("Computer Engineering");
+        course.setDetails(new ArrayList<>(List.of(meetings)));
+        return course;
+    }
+
+    private static CourseDetail meeting(String day, String start) {
+        CourseDetail detail = new CourseDetail();
+        detail.setDay(day);
+        detail.setStartHour(start);
+        detail.setEndHour("10:50");
+        detail.setType("LEC");
+        return detail;
+    }
+}
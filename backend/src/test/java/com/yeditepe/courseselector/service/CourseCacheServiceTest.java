@@ -0,0 +1,411 @@
+package com.yeditepe.courseselector.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeditepe.courseselector.config.CacheProperties;
+import com.yeditepe.courseselector.dto.CatalogDelta;
+import com.yeditepe.courseselector.dto.CourseFilterRequest;
+import com.yeditepe.courseselector.dto.CourseFilterResult;
+import com.yeditepe.courseselector.entity.AcademicSeason;
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import com.yeditepe.courseselector.entity.Course;
+import com.yeditepe.courseselector.entity.CourseSection;
+import com.yeditepe.courseselector.event.CatalogSyncedEvent;
+import com.yeditepe.courseselector.repository.AcademicSeasonRepository;
+import com.yeditepe.courseselector.repository.CourseRepository;
+import com.yeditepe.courseselector.repository.DepartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CourseCacheServiceTest {
+
+    private static final long SEASON = 1L;
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final AcademicSeasonRepository seasonRepository = mock(AcademicSeasonRepository.class);
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final UpstreamFallbackService upstreamFallback = mock(UpstreamFallbackService.class);
+    private final CatalogVersionService catalogVersions = mock(CatalogVersionService.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private CourseCacheService cacheService;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        cacheService.shutdown();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        cacheService = newService(10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(course(1L, "CSE101", "Ada"));
+        });
+
+        List<Future<Optional<CatalogSnapshot>>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> cacheService.getCatalog(SEASON)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        CatalogSnapshot first = results.get(0).get(5, TimeUnit.SECONDS).orElseThrow();
+        for (Future<Optional<CatalogSnapshot>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsSame(first);
+        }
+        verify(courseRepository, times(1)).findBySeasonIdWithSections(SEASON);
+    }
+
+    @Test
+    void timedOutCallerGivesUpWhileTheLoadFillsTheCache() throws Exception {
+        cacheService = newService(50);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(course(1L, "CSE101", "Ada"));
+        });
+
+        assertThat(cacheService.getCatalog(SEASON)).isEmpty();
+        assertThat(cacheService.getMemoryCacheStats()).containsEntry("loadTimeouts", 1L);
+
+        release.countDown();
+        awaitLoaded();
+        assertThat(cacheService.getCatalog(SEASON)).isPresent();
+        verify(courseRepository, times(1)).findBySeasonIdWithSections(SEASON);
+    }
+
+    @Test
+    void lastKnownSnapshotServedAfterALoadTimeoutIsStale() throws Exception {
+        cacheService = newService(1_000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenReturn(List.of())
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(course(1L, "CSE101", "Grace"));
+            });
+
+        CatalogSnapshot fresh = cacheService.getCatalog(SEASON).orElseThrow();
+        assertThat(cacheService.isStale(fresh)).isFalse();
+
+        // An empty rebuild drops the entry; the next load times out and the last known snapshot is served
+        cacheService.publishCatalog(SEASON);
+        CatalogSnapshot fallback = cacheService.getCatalog(SEASON).orElseThrow();
+        assertThat(fallback).isSameAs(fresh);
+        assertThat(cacheService.isStale(fallback)).isTrue();
+
+        release.countDown();
+        awaitLoaded();
+        assertThat(cacheService.isStale(cacheService.getCatalog(SEASON).orElseThrow())).isFalse();
+    }
+
+    @Test
+    void unloadableCatalogIsUnavailableNotEmpty() {
+        cacheService = newService(10_000);
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenThrow(new IllegalStateException("database down"));
+        when(courseRepository.findBySeasonIdWithSections(2L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> cacheService.requireCatalog(SEASON))
+            .isInstanceOfSatisfying(CatalogUnavailableException.class,
+                e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(10));
+        // A season without courses is just empty
+        assertThat(cacheService.requireCatalog(2L)).isEmpty();
+    }
+
+    @Test
+    void publishSwapsInTheNextSnapshotWithoutTouchingTheOneInUse() {
+        cacheService = newService(10_000);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenReturn(List.of(course(1L, "CSE101", "Grace"), course(2L, "CSE102", "Alan")));
+
+        CatalogSnapshot held = cacheService.getCatalog(SEASON).orElseThrow();
+        cacheService.publishCatalog(SEASON);
+        CatalogSnapshot next = cacheService.getCatalog(SEASON).orElseThrow();
+
+        assertThat(next).isNotSameAs(held);
+        assertThat(next.getCourses()).extracting(c -> c.getInstructor()).containsExactly("Grace", "Alan");
+        // A request pinned to the previous snapshot keeps a consistent view
+        assertThat(held.getCourses()).extracting(c -> c.getInstructor()).containsExactly("Ada");
+        assertThat(held.getDepartment(10L)).hasSize(1);
+        verify(courseRepository, times(2)).findBySeasonIdWithSections(SEASON);
+    }
+
+    @Test
+    void snapshotsCarryTheSharedVersionAndDeltasNeedTheSameEpoch() {
+        cacheService = newService(10_000);
+        when(catalogVersions.current(CatalogVersion.courses(SEASON))).thenReturn(3L, 3L, 4L);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenReturn(List.of(course(1L, "CSE101", "Grace"), course(2L, "CSE102", "Alan")));
+
+        CatalogSnapshot first = cacheService.getCatalog(SEASON).orElseThrow();
+        assertThat(first.getVersion()).isEqualTo(3);
+
+        // Shared version unchanged (e.g. a refresh): same snapshot, no new version, rows not read again
+        cacheService.publishCatalog(SEASON);
+        assertThat(cacheService.getCatalog(SEASON)).containsSame(first);
+        verify(courseRepository, times(1)).findBySeasonIdWithSections(SEASON);
+
+        cacheService.publishCatalog(SEASON);
+        assertThat(cacheService.getCatalog(SEASON).orElseThrow().getVersion()).isEqualTo(4);
+
+        CatalogDelta delta = cacheService.getChangesSince(SEASON, cacheService.getCatalogEpoch(), 3).orElseThrow();
+        assertThat(delta.getToVersion()).isEqualTo(4);
+        assertThat(delta.getModified()).extracting(c -> c.getInstructor()).containsExactly("Grace");
+        assertThat(delta.getAdded()).extracting(c -> c.getCode()).containsExactly("CSE102");
+        // Version 3 from another instance, or from before a restart, may have other content
+        assertThat(cacheService.getChangesSince(SEASON, "other", 3)).isEmpty();
+        assertThat(cacheService.getChangesSince(SEASON, null, 3)).isEmpty();
+    }
+
+    @Test
+    void filtersByMeetingTypeOnSnapshotsBuiltFromDatabaseRows() {
+        cacheService = newService(10_000);
+        Course lab = course(2L, "CSE102", "Alan");
+        lab.getSections().get(0).setType("LAB");
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenReturn(List.of(course(1L, "CSE101", "Ada"), lab));
+
+        CourseFilterRequest request = new CourseFilterRequest();
+        request.setTypes(List.of("LAB"));
+        CourseFilterResult result = cacheService.filterCourses(cacheService.getCatalog(SEASON).orElse(null), request, 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getCourses()).extracting(c -> c.getCode()).containsExactly("CSE102");
+        assertThat(result.getFacets().get(CourseFacetIndex.TYPE)).containsEntry("LEC", 1).containsEntry("LAB", 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seasonStatsReportTheStringDictionaryOfTheLastBuild() {
+        cacheService = newService(10_000);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada"), course(2L, "CSE102", "Ada")));
+        cacheService.getCatalog(SEASON).orElseThrow();
+
+        Map<Long, Map<String, Object>> seasons = (Map<Long, Map<String, Object>>) cacheService.getMemoryCacheStats().get("seasons");
+        Map<String, Object> dictionary = (Map<String, Object>) seasons.get(SEASON).get("stringDictionary");
+        assertThat((long) dictionary.get("lookups")).isGreaterThan((int) dictionary.get("distinct"));
+        // The second course repeats instructor, department, day, type and hours of the first
+        assertThat((long) dictionary.get("hits")).isGreaterThanOrEqualTo(6);
+    }
+
+    @Test
+    void staleDiskSnapshotIsRebuiltWithASingleLoadThread(@TempDir Path dir) throws Exception {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(dir.toString(), true);
+        com.yeditepe.courseselector.dto.Course saved = new com.yeditepe.courseselector.dto.Course();
+        saved.setCode("CSE101");
+        saved.setDepartmentId(10L);
+        saved.setInstructor("Ada");
+        store.save(CatalogSnapshot.of(SEASON, 1, 1_700_000_000_000L, List.of(saved), new ObjectMapper()));
+
+        cacheService = newService(10_000, store, 1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenReturn(List.of(course(1L, "CSE101", "Grace")));
+        cacheService.restoreFromDisk();
+        assertThat(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor()).isEqualTo("Ada");
+
+        // Verification rebuilds through publishCatalog, which must not wait on its own pool
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!"Grace".equals(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor()).isEqualTo("Grace");
+    }
+
+    @Test
+    void refreshAfterWriteServesTheOldSnapshotWhileReloading() throws Exception {
+        CacheProperties properties = properties(10_000, 2);
+        properties.getMemory().setRefreshAfterMs(50);
+        cacheService = newService(properties, new CatalogSnapshotStore("", false));
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(course(1L, "CSE101", "Grace"));
+            });
+        CatalogSnapshot old = cacheService.getCatalog(SEASON).orElseThrow();
+
+        // Past refresh-after: the read triggers the reload and does not wait for it
+        Thread.sleep(80);
+        Future<Optional<CatalogSnapshot>> read = callers.submit(() -> cacheService.getCatalog(SEASON));
+        assertThat(read.get(1, TimeUnit.SECONDS)).containsSame(old);
+        assertThat(cacheService.getCatalog(SEASON)).containsSame(old);
+        assertThat(cacheService.isStale(old)).isFalse();
+
+        release.countDown();
+        awaitInstructor("Grace");
+        verify(courseRepository, times(2)).findBySeasonIdWithSections(SEASON);
+    }
+
+    @Test
+    void refreshAheadReloadsRecentlyReadEntriesInTheBackground() throws Exception {
+        CacheProperties properties = properties(10_000, 2);
+        properties.getMemory().setRefreshAfterMs(50);
+        cacheService = newService(properties, new CatalogSnapshotStore("", false));
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(course(1L, "CSE101", "Grace"));
+            });
+        CatalogSnapshot old = cacheService.getCatalog(SEASON).orElseThrow();
+
+        Thread.sleep(80);
+        cacheService.refreshAhead();
+        assertThat(cacheService.getMemoryCacheStats()).containsEntry("refreshAhead", 1L);
+        assertThat(cacheService.getCatalog(SEASON)).containsSame(old);
+
+        release.countDown();
+        awaitInstructor("Grace");
+    }
+
+    @Test
+    void warmUpLoadsTheActiveSeason() {
+        cacheService = newService(10_000);
+        when(seasonRepository.findAllByOrderByIdDesc()).thenReturn(List.of(season(2L, 0), season(SEASON, 1)));
+        when(courseRepository.findBySeasonIdWithSections(SEASON)).thenReturn(List.of(course(1L, "CSE101", "Ada")));
+
+        assertThat(cacheService.warmUp()).isTrue();
+        assertThat(cacheService.holdsSeason(SEASON)).isTrue();
+        assertThat(cacheService.holdsSeason(2L)).isFalse();
+        // The first request is served from memory
+        assertThat(cacheService.getCatalog(SEASON)).isPresent();
+        verify(courseRepository, times(1)).findBySeasonIdWithSections(SEASON);
+        verify(departmentRepository).findAllByOrderByNameAsc();
+    }
+
+    @Test
+    void warmUpOfAnEmptyDatabaseReportsAColdCache() {
+        cacheService = newService(10_000);
+        when(seasonRepository.findAllByOrderByIdDesc()).thenReturn(List.of());
+
+        assertThat(cacheService.warmUp()).isFalse();
+        verify(courseRepository, never()).findBySeasonIdWithSections(anyLong());
+    }
+
+    @Test
+    void syncedEventRebuildsOnlyWhatTheSyncChanged() {
+        cacheService = newService(10_000);
+        when(seasonRepository.findAllByOrderByIdDesc())
+            .thenReturn(List.of(season(SEASON, 1)))
+            .thenReturn(List.of(season(2L, 1), season(SEASON, 0)));
+        when(courseRepository.findBySeasonIdWithSections(SEASON))
+            .thenReturn(List.of(course(1L, "CSE101", "Ada")))
+            .thenReturn(List.of(course(1L, "CSE101", "Grace")));
+        cacheService.getCatalog(SEASON).orElseThrow();
+        cacheService.getSeasonsCatalog().orElseThrow();
+
+        cacheService.refreshCatalogs(CatalogSyncedEvent.courses(SEASON));
+        assertThat(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor()).isEqualTo("Grace");
+        // Departments missing before may have been synced
+        verify(upstreamFallback).invalidateAll();
+        verify(seasonRepository, times(1)).findAllByOrderByIdDesc();
+        verify(departmentRepository, never()).findAllByOrderByNameAsc();
+
+        // A season sync rebuilds the seasons catalog and warms up the new active season
+        cacheService.refreshCatalogs(CatalogSyncedEvent.seasons());
+        assertThat(cacheService.getSeasonsCatalog().orElseThrow().getItems())
+            .extracting(com.yeditepe.courseselector.dto.AcademicSeason::getId).containsExactly(2L, SEASON);
+        verify(courseRepository).findBySeasonIdWithSections(2L);
+    }
+
+    private static AcademicSeason season(Long id, int active) {
+        AcademicSeason season = new AcademicSeason();
+        season.setId(id);
+        season.setName("Season " + id);
+        season.setActive(active);
+        return season;
+    }
+
+    private void awaitInstructor(String instructor) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!instructor.equals(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cacheService.getCatalog(SEASON).orElseThrow().getCourses().get(0).getInstructor()).isEqualTo(instructor);
+    }
+
+    private void awaitLoaded() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((long) cacheService.getMemoryCacheStats().get("inFlightLoads") > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private CourseCacheService newService(long loadTimeoutMs) {
+        return newService(loadTimeoutMs, new CatalogSnapshotStore("", false), 2);
+    }
+
+    private CourseCacheService newService(long loadTimeoutMs, CatalogSnapshotStore store, int loadThreads) {
+        return newService(properties(loadTimeoutMs, loadThreads), store);
+    }
+
+    private CourseCacheService newService(CacheProperties properties, CatalogSnapshotStore store) {
+        return new CourseCacheService(
+            upstreamFallback,
+            seasonRepository,
+            departmentRepository,
+            courseRepository,
+            new ObjectMapper(),
+            store,
+            catalogVersions,
+            mock(DataSource.class),
+            mock(PlatformTransactionManager.class),
+            properties);
+    }
+
+    static CacheProperties properties(long loadTimeoutMs, int loadThreads) {
+        CacheProperties properties = new CacheProperties();
+        properties.getMemory().setLoadTimeoutMs(loadTimeoutMs);
+        properties.getMemory().setLoadThreads(loadThreads);
+        return properties;
+    }
+
+    static Course course(Long id, String code, String instructor) {
+        Course course = new Course();
+        course.setId(id);
+        course.setSeasonId(SEASON);
+        course.setDepartmentId(10L);
+        course.setDepartmentName("Computer Engineering");
+        course.setCode(code);
+        course.setSection(1);
+        course.setName(code);
+        course.setNameEn(code + " course");
+        course.setCredit(3);
+        course.setEcts(6);
+        course.setFullQuota(40);
+        course.setQuota(10);
+        course.setInstructor(instructor);
+        CourseSection section = new CourseSection();
+        section.setCourse(course);
+        section.setDay("MON");
+        section.setStartTime("09:00");
+        section.setEndTime("10:50");
+        section.setType("LEC");
+        course.getSections().add(section);
+        return course;
+    }
+}
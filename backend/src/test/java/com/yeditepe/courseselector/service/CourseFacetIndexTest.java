@@ -0,0 +1,99 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.CourseDetail;
+import com.yeditepe.courseselector.dto.CourseFilterRequest;
+import com.yeditepe.courseselector.dto.CourseFilterResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseFacetIndexTest {
+
+    private final CourseFacetIndex index = CourseFacetIndex.build(List.of(
+        course("CSE101", 10L, 3, 40, 10, meeting("Monday", "09:00", "10:50", "LEC")),
+        course("CSE102", 10L, 4, 40, 40, meeting("Tuesday", "13:00", "14:50", "LEC"),
+            meeting("Thursday", "15:00", "16:50", "LAB")),
+        course("MATH101", 20L, 4, 60, 30, meeting("Monday", "11:00", "12:50", "LEC"))));
+
+    @Test
+    void combinesValuesWithOrAndFacetsWithAnd() {
+        assertThat(codes(filter(r -> r.setDays(List.of("Monday", "Tuesday"))))).containsExactly("CSE101", "CSE102", "MATH101");
+        assertThat(codes(filter(r -> {
+            r.setDays(List.of("Monday", "Tuesday"));
+            r.setCredits(List.of(4));
+        }))).containsExactly("CSE102", "MATH101");
+        assertThat(codes(filter(r -> r.setTypes(List.of("LAB"))))).containsExactly("CSE102");
+        assertThat(codes(filter(r -> r.setDepartmentIds(List.of(20L))))).containsExactly("MATH101");
+    }
+
+    @Test
+    void facetCountsIgnoreTheFacetsOwnSelection() {
+        CourseFilterResult result = filter(r -> {
+            r.setDays(List.of("Monday"));
+            r.setCredits(List.of(3));
+        });
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        // Other credit values stay visible with the counts they would have under the day selection
+        assertThat(result.getFacets().get(CourseFacetIndex.CREDIT)).containsEntry("3", 1).containsEntry("4", 1);
+        assertThat(result.getFacets().get(CourseFacetIndex.DAY)).containsEntry("Monday", 1).containsEntry("Tuesday", 0);
+    }
+
+    @Test
+    void timeWindowRequiresEveryMeetingInside() {
+        assertThat(codes(filter(r -> r.setTo("13:00")))).containsExactly("CSE101", "MATH101");
+        assertThat(codes(filter(r -> r.setFrom("13:00")))).containsExactly("CSE102");
+        assertThat(codes(filter(r -> {
+            r.setFrom("13:00");
+            r.setTo("16:00");
+        }))).isEmpty();
+    }
+
+    @Test
+    void filtersOnFreeQuotaAndPages() {
+        assertThat(codes(filter(r -> r.setHasQuota(true)))).containsExactly("CSE101", "MATH101");
+
+        CourseFilterResult secondPage = index.filter(new CourseFilterRequest(), 1, 2);
+        assertThat(secondPage.getTotal()).isEqualTo(3);
+        assertThat(codes(secondPage)).containsExactly("MATH101");
+    }
+
+    private CourseFilterResult filter(Consumer<CourseFilterRequest> selection) {
+        CourseFilterRequest request = new CourseFilterRequest();
+        selection.accept(request);
+        return index.filter(request, 0, 50);
+    }
+
+    private static List<String> codes(CourseFilterResult result) {
+        return result.getCourses().stream().map(Course::getCode).collect(Collectors.toList());
+    }
+
+    private static Course course(String code, Long departmentId, int credit, int capacity, int enrolled,
+                                 CourseDetail... meetings) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setSection(1);
+        course.setDepartmentId(departmentId);
+        course.setCredit(credit);
+        course.setEcts(credit * 2);
+        course.setQuota(capacity);
+        course.setFullQuota(enrolled);
+        course.setDetails(new ArrayList<>(List.of(meetings)));
+        return course;
+    }
+
+    private static CourseDetail meeting(String day, String start, String end, String type) {
+        CourseDetail detail = new CourseDetail();
+        detail.setDay(day);
+        detail.setStartHour(start);
+        detail.setEndHour(end);
+        detail.setType(type);
+        return detail;
+    }
+}
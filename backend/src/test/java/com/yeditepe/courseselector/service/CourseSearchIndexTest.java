@@ -0,0 +1,67 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.Course;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseSearchIndexTest {
+
+    private final CourseSearchIndex index = CourseSearchIndex.build(List.of(
+        course("MAN101", 1, "İŞLETMEYE GİRİŞ", "Introduction to Business", "Ayşe Yılmaz"),
+        course("MAN101", 2, "İŞLETMEYE GİRİŞ", "Introduction to Business", "Çağrı Öztürk"),
+        course("CSE211", 1, "Algoritmalar", "Algorithms", "Ada Lovelace"),
+        course("CSE212", 1, "Veri Yapıları", "Data Structures", "Grace Hopper")));
+
+    @Test
+    void foldsTurkishCaseAndDiacritics() {
+        assertThat(codes(index.search("isletmeye", 10))).containsExactly("MAN101", "MAN101");
+        assertThat(codes(index.search("İŞLETMEYE", 10))).containsExactly("MAN101", "MAN101");
+        assertThat(codes(index.search("cagri ozturk", 10))).containsExactly("MAN101", "MAN101");
+        assertThat(codes(index.search("yapilari", 10))).containsExactly("CSE212");
+    }
+
+    @Test
+    void matchesPrefixesAndCourseCodes() {
+        assertThat(codes(index.search("algo", 10))).containsExactly("CSE211");
+        assertThat(codes(index.search("cse211", 10))).containsExactly("CSE211");
+        assertThat(codes(index.search("cse", 10))).containsExactly("CSE211", "CSE212");
+    }
+
+    @Test
+    void toleratesTyposInLongerTokens() {
+        assertThat(codes(index.search("algoritmlar", 10))).containsExactly("CSE211");
+        assertThat(codes(index.search("strcutures", 10))).containsExactly("CSE212");
+        // Short tokens must match exactly or as a prefix
+        assertThat(index.search("dsa", 10)).isEmpty();
+    }
+
+    @Test
+    void requiresEveryTokenAndHonoursTheLimit() {
+        assertThat(codes(index.search("data hopper", 10))).containsExactly("CSE212");
+        assertThat(index.search("data lovelace", 10)).isEmpty();
+        // The limit counts courses; all sections of a matched course are returned
+        assertThat(codes(index.search("man101", 1))).containsExactly("MAN101", "MAN101");
+        assertThat(index.getDocumentCount()).isEqualTo(3);
+        assertThat(index.getTermCount()).isPositive();
+    }
+
+    private static List<String> codes(List<Course> courses) {
+        return courses.stream().map(Course::getCode).collect(Collectors.toList());
+    }
+
+    private static Course course(String code, int section, String nameTr, String nameEn, String instructor) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setSection(section);
+        course.setName(nameTr);
+        course.setNameTr(nameTr);
+        course.setNameEn(nameEn);
+        course.setInstructor(instructor);
+        course.setDepartmentId(10L);
+        return course;
+    }
+}
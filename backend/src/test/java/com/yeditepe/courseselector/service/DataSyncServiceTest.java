@@ -0,0 +1,164 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.config.ThreadingConfig;
+import com.yeditepe.courseselector.dto.AcademicSeason;
+import com.yeditepe.courseselector.dto.Course;
+import com.yeditepe.courseselector.dto.Department;
+import com.yeditepe.courseselector.entity.CatalogVersion;
+import com.yeditepe.courseselector.event.CatalogSyncedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:datasync;MODE=MySQL;NON_KEYWORDS=DAY,TYPE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "data.sync.cron=-"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The sync manages its own transactions
+@Import({DataSyncService.class, CourseBulkWriter.class, CatalogVersionService.class, ThreadingConfig.class})
+@RecordApplicationEvents
+class DataSyncServiceTest {
+
+    private static final long SEASON = 1L;
+
+    @MockBean
+    private YeditepeApiService apiService;
+
+    @MockBean
+    private CourseCacheService cacheService;
+
+    @Autowired
+    private DataSyncService syncService;
+
+    @Autowired
+    private CatalogVersionService catalogVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private final List<Boolean> transactionDuringFetch = new CopyOnWriteArrayList<>();
+    private volatile boolean invalidDepartment12;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM course_sections");
+        jdbcTemplate.update("DELETE FROM courses");
+        jdbcTemplate.update("DELETE FROM catalog_versions");
+
+        AcademicSeason season = new AcademicSeason();
+        season.setId(SEASON);
+        season.setName("2025-2026 Fall");
+        season.setActive(1);
+        when(apiService.getAcademicSeasons()).thenReturn(List.of(season));
+        when(apiService.getDepartments()).thenReturn(List.of(department(10L), department(11L), department(12L)));
+        when(apiService.getCourses(eq(SEASON), anyLong())).thenAnswer(invocation -> {
+            transactionDuringFetch.add(TransactionSynchronizationManager.isActualTransactionActive());
+            long departmentId = invocation.getArgument(1);
+            if (departmentId == 11L) throw new IllegalStateException("upstream down");
+            Course course = course("D" + departmentId + "-101");
+            if (departmentId == 12L && invalidDepartment12) course.setName(null); // violates NOT NULL
+            return List.of(course);
+        });
+    }
+
+    @Test
+    void fetchesRunWithoutATransactionAndOneVersionCoversAllDepartments() {
+        syncService.syncAllData();
+
+        assertThat(transactionDuringFetch).hasSize(3).containsOnly(false);
+        assertThat(jdbcTemplate.queryForList("SELECT code FROM courses ORDER BY code", String.class))
+            .containsExactly("D10-101", "D12-101");
+        assertThat(catalogVersions.current(CatalogVersion.courses(SEASON))).isEqualTo(1);
+        assertThat(events.stream(CatalogSyncedEvent.class).filter(e -> e.getCourseSeasonIds().contains(SEASON)))
+            .hasSize(1);
+        // Refreshes are held across all department commits
+        verify(cacheService).beginCatalogUpdate();
+        verify(cacheService).endCatalogUpdate();
+        DataSyncService.SyncRun run = syncService.getSyncStatus().getLastRun();
+        assertThat(run.getCoursesCreated()).isEqualTo(2);
+        assertThat(run.getFailedDepartments()).isEqualTo(1);
+    }
+
+    @Test
+    void syncWithoutChangesKeepsTheCatalogVersion() {
+        syncService.syncAllData();
+        syncService.syncCourses();
+
+        assertThat(catalogVersions.current(CatalogVersion.courses(SEASON))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void failedDepartmentWriteIsRolledBackAlone() {
+        invalidDepartment12 = true;
+        syncService.syncAllData();
+
+        assertThat(jdbcTemplate.queryForList("SELECT code FROM courses", String.class)).containsExactly("D10-101");
+        assertThat(catalogVersions.current(CatalogVersion.courses(SEASON))).isEqualTo(1);
+        assertThat(syncService.getSyncStatus().getLastRun().getFailedDepartments()).isEqualTo(2);
+    }
+
+    @Test
+    void departmentIsCommittedWithoutWaitingForSlowerFetches() {
+        // Department 10 only answers once department 12 is visible to another connection
+        when(apiService.getCourses(SEASON, 10L)).thenAnswer(invocation -> {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (System.currentTimeMillis() < deadline) {
+                Long committed = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM courses WHERE code = 'D12-101'", Long.class);
+                if (committed > 0) return List.of(course("D10-101"));
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("department 12 was not committed before department 10 was fetched");
+        });
+
+        syncService.syncAllData();
+
+        assertThat(jdbcTemplate.queryForList("SELECT code FROM courses ORDER BY code", String.class))
+            .containsExactly("D10-101", "D12-101");
+        assertThat(catalogVersions.current(CatalogVersion.courses(SEASON))).isEqualTo(1);
+    }
+
+    private static Department department(Long id) {
+        Department department = new Department();
+        department.setId(id);
+        department.setName("Department " + id);
+        return department;
+    }
+
+    private static Course course(String code) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setSection(1);
+        course.setName(code);
+        course.setInstructor("Ada");
+        return course;
+    }
+}
@@ -0,0 +1,85 @@
+package com.yeditepe.courseselector.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScheduleAdmissionServiceTest {
+
+    private ScheduleAdmissionService admission;
+
+    @AfterEach
+    void shutdown() {
+        admission.shutdown();
+    }
+
+    @Test
+    void rejectsWorkBeyondQueueCapacity() throws Exception {
+        admission = new ScheduleAdmissionService(1, 1, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = admission.submit(1, () -> await(release, "running"));
+        CompletableFuture<String> queued = admission.submit(1, () -> "queued");
+
+        assertThatThrownBy(() -> admission.submit(1, () -> "rejected"))
+            .isInstanceOf(ScheduleOverloadException.class)
+            .satisfies(e -> assertThat(((ScheduleOverloadException) e).getRetryAfterSeconds()).isPositive());
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(admission.getStats()).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void runsCheaperQueuedWorkFirst() throws Exception {
+        admission = new ScheduleAdmissionService(1, 10, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> blocker = admission.submit(1, () -> await(release, "blocker"));
+        CompletableFuture<Boolean> expensive = admission.submit(1_000_000, () -> order.add("expensive"));
+        CompletableFuture<Boolean> cheap = admission.submit(2, () -> order.add("cheap"));
+
+        release.countDown();
+        CompletableFuture.allOf(blocker, expensive, cheap).get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("cheap", "expensive");
+    }
+
+    @Test
+    void interruptsWorkThatExceedsTheTimeout() throws Exception {
+        admission = new ScheduleAdmissionService(1, 10, 100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> result = admission.submit(1, () -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            interrupted.countDown();
+            return "late";
+        });
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The worker is reusable and does not see the interrupt of the previous task
+        assertThat(admission.submit(1, () -> Thread.currentThread().isInterrupted()).get(5, TimeUnit.SECONDS))
+            .isFalse();
+    }
+
+    private static String await(CountDownLatch latch, String value) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.ScheduleRequest;
+import com.yeditepe.courseselector.dto.ScheduleResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ScheduleGenerationServiceTest {
+
+    private final CourseCacheService cacheService = mock(CourseCacheService.class);
+    private final ScheduleService scheduleService = mock(ScheduleService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ScheduleAdmissionService admission;
+    private ScheduleGenerationService generation;
+
+    @BeforeEach
+    void setUp() {
+        admission = new ScheduleAdmissionService(2, 10, 10_000);
+        generation = new ScheduleGenerationService(cacheService, scheduleService, admission);
+        when(scheduleService.generateSchedule(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            ScheduleResult result = new ScheduleResult();
+            result.setSuccess(true);
+            return result;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        admission.shutdown();
+    }
+
+    @Test
+    void equivalentConcurrentRequestsAreSolvedOnce() throws Exception {
+        ScheduleRequest upper = request(List.of("MATH101", "CSE101"));
+        ScheduleRequest lower = request(List.of("MATH101", "CSE101"));
+        // Mode case and the MANUAL section list do not change what the AUTO solver does
+        lower.setMode("auto");
+        lower.setSelectedSections(List.of(new ScheduleRequest.SelectedSection("CSE101", "2")));
+
+        CompletableFuture<ScheduleResult> first = generation.generate(upper);
+        CompletableFuture<ScheduleResult> second = generation.generate(lower);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        verify(scheduleService, times(1)).generateSchedule(any(), any());
+        assertThat(generation.getStats()).containsEntry("computed", 1L).containsEntry("coalesced", 1L);
+    }
+
+    @Test
+    void differentRequestsAreSolvedSeparately() throws Exception {
+        CompletableFuture<ScheduleResult> first = generation.generate(request(List.of("MATH101")));
+        CompletableFuture<ScheduleResult> second = generation.generate(request(List.of("CSE101")));
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        verify(scheduleService, times(2)).generateSchedule(any(), any());
+    }
+
+    @Test
+    void solverGetsTheCallersCourseOrder() throws Exception {
+        // The backtracking search is capped, so another order may yield other schedules
+        ScheduleRequest reordered = request(List.of("CSE101", "MATH101", "CSE101"));
+        CompletableFuture<ScheduleResult> first = generation.generate(request(List.of("MATH101", "CSE101")));
+        CompletableFuture<ScheduleResult> second = generation.generate(reordered);
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        verify(scheduleService).generateSchedule(any(), argThat(r -> r.getCourseCodes().equals(List.of("MATH101", "CSE101"))));
+        verify(scheduleService).generateSchedule(any(), same(reordered));
+        assertThat(generation.getStats()).containsEntry("computed", 2L).containsEntry("coalesced", 0L);
+    }
+
+    private static ScheduleRequest request(List<String> courseCodes) {
+        ScheduleRequest request = new ScheduleRequest();
+        request.setSeasonId(1L);
+        request.setDepartmentId(10L);
+        request.setMode("AUTO");
+        request.setCourseCodes(courseCodes);
+        return request;
+    }
+}
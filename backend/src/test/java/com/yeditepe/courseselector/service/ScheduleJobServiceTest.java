@@ -0,0 +1,100 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.dto.ScheduleJob;
+import com.yeditepe.courseselector.dto.ScheduleRequest;
+import com.yeditepe.courseselector.dto.ScheduleResult;
+import com.yeditepe.courseselector.event.ScheduleJobUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScheduleJobServiceTest {
+
+    private final ScheduleGenerationService generationService = mock(ScheduleGenerationService.class);
+    private final List<ScheduleJob> published = new CopyOnWriteArrayList<>();
+    private final ApplicationEventPublisher eventPublisher =
+        event -> published.add(((ScheduleJobUpdatedEvent) event).getJob());
+    private ScheduleJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void submittedJobIsPolledUntilCompletedWithoutHoldingAJobThread() throws Exception {
+        jobService = new ScheduleJobService(generationService, eventPublisher, 1, 10, 100, 600_000);
+        CompletableFuture<ScheduleResult> first = new CompletableFuture<>();
+        CompletableFuture<ScheduleResult> second = new CompletableFuture<>();
+        when(generationService.generate(any())).thenReturn(first, second);
+
+        String firstId = jobService.submit(new ScheduleRequest()).getJobId();
+        awaitJob(firstId, job -> ScheduleJobService.RUNNING.equals(job.getStatus()));
+        // The only job thread is free again while the first solve is still running
+        String secondId = jobService.submit(new ScheduleRequest()).getJobId();
+        awaitJob(secondId, job -> ScheduleJobService.RUNNING.equals(job.getStatus()));
+        assertThat(jobService.getStats()).containsEntry("runningJobs", 2);
+
+        ScheduleResult result = new ScheduleResult();
+        result.setSuccess(true);
+        result.setMessage("ok");
+        first.complete(result);
+        second.completeExceptionally(new IllegalStateException("boom"));
+
+        ScheduleJob completed = jobService.getJob(firstId).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(ScheduleJobService.COMPLETED);
+        assertThat(completed.getResult()).isSameAs(result);
+        assertThat(completed.getCompletedAt()).isNotNull();
+        assertThat(jobService.getJob(secondId).orElseThrow().getStatus()).isEqualTo(ScheduleJobService.FAILED);
+        assertThat(jobService.getStats()).containsEntry("runningJobs", 0);
+        assertThat(published).filteredOn(job -> job.getJobId().equals(firstId)).extracting(ScheduleJob::getStatus)
+            .containsExactly(ScheduleJobService.QUEUED, ScheduleJobService.RUNNING, ScheduleJobService.COMPLETED);
+    }
+
+    @Test
+    void retainedJobsAreBoundedBySizeAndRetention() throws Exception {
+        jobService = new ScheduleJobService(generationService, eventPublisher, 1, 10, 2, 0);
+        CompletableFuture<ScheduleResult> unfinished = new CompletableFuture<>();
+        when(generationService.generate(any()))
+            .thenReturn(CompletableFuture.completedFuture(new ScheduleResult()))
+            .thenReturn(CompletableFuture.completedFuture(new ScheduleResult()))
+            .thenReturn(unfinished);
+
+        String oldest = jobService.submit(new ScheduleRequest()).getJobId();
+        awaitJob(oldest, job -> job.getCompletedAt() != null);
+        String finished = jobService.submit(new ScheduleRequest()).getJobId();
+        awaitJob(finished, job -> job.getCompletedAt() != null);
+        String running = jobService.submit(new ScheduleRequest()).getJobId();
+        awaitJob(running, job -> ScheduleJobService.RUNNING.equals(job.getStatus()));
+
+        // At most two jobs are kept, the oldest is dropped first
+        assertThat(jobService.getJob(oldest)).isEmpty();
+        assertThat(jobService.getStats()).containsEntry("retainedJobs", 2);
+
+        Thread.sleep(5);
+        jobService.evictExpiredJobs();
+        assertThat(jobService.getJob(finished)).isEmpty();
+        // Unfinished jobs are never evicted
+        assertThat(jobService.getJob(running)).isPresent();
+    }
+
+    private void awaitJob(String jobId, Predicate<ScheduleJob> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            ScheduleJob job = jobService.getJob(jobId).orElse(null);
+            if (job != null && condition.test(job)) return;
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Job " + jobId + " did not reach the expected state");
+    }
+}
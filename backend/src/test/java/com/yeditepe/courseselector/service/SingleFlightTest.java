@@ -0,0 +1,68 @@
+package com.yeditepe.courseselector.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void followersShareTheLeadersResult() throws Exception {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> leader = flight.execute("k", () -> { started.incrementAndGet(); return work; });
+        CompletableFuture<String> follower = flight.execute("k", () -> { started.incrementAndGet(); return work; });
+        assertThat(flight.getInFlightCount()).isEqualTo(1);
+
+        work.complete("result");
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(started).hasValue(1);
+        assertThat(flight.getCoalescedCount()).isEqualTo(1);
+        assertThat(flight.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void differentKeysRunSeparately() {
+        flight.execute("a", CompletableFuture::new);
+        flight.execute("b", CompletableFuture::new);
+
+        assertThat(flight.getLeaderCount()).isEqualTo(2);
+        assertThat(flight.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    void failureReachesFollowersAndReleasesTheKey() throws Exception {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.execute("k", () -> work);
+        CompletableFuture<String> follower = flight.execute("k", () -> work);
+
+        work.completeExceptionally(new IllegalStateException("boom"));
+        assertThatThrownBy(() -> follower.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasRootCauseMessage("boom");
+        assertThat(leader).isCompletedExceptionally();
+
+        assertThat(flight.execute("k", () -> CompletableFuture.completedFuture("retry")).get()).isEqualTo("retry");
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheOthers() throws Exception {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.execute("k", () -> work);
+        CompletableFuture<String> follower = flight.execute("k", () -> work);
+
+        follower.cancel(true);
+        work.complete("result");
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+}
@@ -0,0 +1,55 @@
+package com.yeditepe.courseselector.service;
+
+import com.yeditepe.courseselector.config.CacheProperties;
+import com.yeditepe.courseselector.dto.Course;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class UpstreamFallbackServiceTest {
+
+    private final YeditepeApiService apiService = mock(YeditepeApiService.class);
+    private final UpstreamFallbackService fallback = new UpstreamFallbackService(apiService, properties());
+
+    private static CacheProperties properties() {
+        CacheProperties properties = new CacheProperties();
+        properties.getFallback().getBreaker().setFailureThreshold(1);
+        return properties;
+    }
+
+    @Test
+    void cachedDepartmentIsServedWhileTheCircuitIsOpen() {
+        Course course = new Course();
+        course.setCode("CSE101");
+        when(apiService.getCourses(1L, 10L)).thenReturn(List.of(course));
+        when(apiService.getCourses(1L, 11L)).thenThrow(new IllegalStateException("upstream down"));
+
+        assertThat(fallback.getCourses(1L, 10L)).containsExactly(course);
+        assertThatThrownBy(() -> fallback.getCourses(1L, 11L)).isInstanceOf(CatalogUnavailableException.class);
+
+        // Circuit is open now: the cached department needs no call, the other is not even tried
+        assertThat(fallback.getCourses(1L, 10L)).containsExactly(course);
+        assertThatThrownBy(() -> fallback.getCourses(1L, 11L))
+            .isInstanceOfSatisfying(CatalogUnavailableException.class,
+                e -> assertThat(e.getRetryAfterSeconds()).isBetween(1L, 30L));
+        verify(apiService, times(1)).getCourses(1L, 10L);
+        verify(apiService, times(1)).getCourses(1L, 11L);
+        assertThat(fallback.getStats()).containsEntry("failures", 1L).containsEntry("cachedHits", 1L);
+    }
+
+    @Test
+    void openCircuitIsReportedForSeasonsAndDepartmentsToo() {
+        when(apiService.getCourses(anyLong(), anyLong())).thenThrow(new IllegalStateException("upstream down"));
+        assertThatThrownBy(() -> fallback.getCourses(1L, 10L)).isInstanceOf(CatalogUnavailableException.class);
+
+        assertThatThrownBy(fallback::getSeasons).isInstanceOf(CatalogUnavailableException.class);
+        assertThatThrownBy(fallback::getDepartments).isInstanceOf(CatalogUnavailableException.class);
+        verify(apiService, never()).getAcademicSeasons();
+        verify(apiService, never()).getDepartments();
+    }
+}
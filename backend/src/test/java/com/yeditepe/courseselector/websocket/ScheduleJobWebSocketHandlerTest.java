@@ -0,0 +1,69 @@
+package com.yeditepe.courseselector.websocket;
+
+import com.yeditepe.courseselector.dto.ScheduleJob;
+import com.yeditepe.courseselector.event.ScheduleJobUpdatedEvent;
+import com.yeditepe.courseselector.service.ScheduleJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ScheduleJobWebSocketHandlerTest {
+
+    private final ScheduleJobService jobService = mock(ScheduleJobService.class);
+    private final ScheduleJobWebSocketHandler handler = new ScheduleJobWebSocketHandler(jobService);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(session.getId()).thenReturn("s1");
+        when(session.isOpen()).thenReturn(true);
+        when(jobService.getJob(any())).thenReturn(Optional.empty());
+        handler.afterConnectionEstablished(session);
+    }
+
+    @Test
+    void subscriberGetsUpdatesUntilTheJobFinishes() throws Exception {
+        subscribe("j1");
+        handler.onJobUpdated(new ScheduleJobUpdatedEvent(job("j1", ScheduleJobService.RUNNING)));
+        handler.onJobUpdated(new ScheduleJobUpdatedEvent(job("j1", ScheduleJobService.COMPLETED)));
+        handler.onJobUpdated(new ScheduleJobUpdatedEvent(job("j1", ScheduleJobService.COMPLETED)));
+        handler.onJobUpdated(new ScheduleJobUpdatedEvent(job("j2", ScheduleJobService.RUNNING)));
+
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(2)).sendMessage(sent.capture());
+        assertThat(sent.getAllValues().get(0).getPayload()).contains("\"status\":\"RUNNING\"");
+        assertThat(sent.getAllValues().get(1).getPayload()).contains("\"status\":\"COMPLETED\"");
+    }
+
+    @Test
+    void jobFinishedBeforeSubscribingIsSentRightAway() throws Exception {
+        when(jobService.getJob("j1")).thenReturn(Optional.of(job("j1", ScheduleJobService.COMPLETED)));
+        subscribe("j1");
+        verify(session).sendMessage(argThat(m -> m instanceof TextMessage
+            && ((TextMessage) m).getPayload().contains("\"jobId\":\"j1\"")));
+    }
+
+    @Test
+    void closedSessionIsUnsubscribed() throws Exception {
+        subscribe("j1");
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        handler.onJobUpdated(new ScheduleJobUpdatedEvent(job("j1", ScheduleJobService.COMPLETED)));
+        verify(session, never()).sendMessage(any());
+    }
+
+    private void subscribe(String jobId) throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"subscribe\",\"jobId\":\"" + jobId + "\"}"));
+    }
+
+    private static ScheduleJob job(String jobId, String status) {
+        return new ScheduleJob(jobId, status, null, null, 1L, null);
+    }
+}
@@ -13,7 +13,13 @@ if [ -n "$DATABASE_URL" ]; then
   # Extract host:port/dbname part
   HOST_PART=$(echo "$DATABASE_URL" | sed 's|.*@||')
 
-  export SPRING_DATASOURCE_URL="jdbc:postgresql://${HOST_PART}"
+  # reWriteBatchedInserts: the driver sends JDBC insert batches (course sync) as multi-row statements
+  case "$HOST_PART" in
+    *\?*) BATCH_PARAM="&reWriteBatchedInserts=true" ;;
+    *) BATCH_PARAM="?reWriteBatchedInserts=true" ;;
+  esac
+
+  export SPRING_DATASOURCE_URL="jdbc:postgresql://${HOST_PART}${BATCH_PARAM}"
   export SPRING_DATASOURCE_USERNAME="$DB_USER"
   export SPRING_DATASOURCE_PASSWORD="$DB_PASS"
 fi